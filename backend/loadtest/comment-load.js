@@ -0,0 +1,67 @@
+// k6 load test for the comment endpoints: every virtual user posts a comment on a shared plan
+// and reads the first page of its comments, as fast as the backend answers.
+//
+//   k6 run -e BASE_URL=http://localhost:8000 -e VUS=200 loadtest/comment-load.js
+//
+// compare-threading.sh runs it against platform and virtual thread request handling.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8000';
+const EMAIL = __ENV.EMAIL || 'loadtest@example.com';
+const PASSWORD = __ENV.PASSWORD || 'loadtest-password';
+
+export const options = {
+  scenarios: {
+    comments: {
+      executor: 'constant-vus',
+      vus: Number(__ENV.VUS || 100),
+      duration: __ENV.DURATION || '60s',
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const JSON_HEADERS = { 'Content-Type': 'application/json' };
+
+// Signs up the load-test user on first use, signs in and creates the plan everyone comments on
+export function setup() {
+  http.post(`${BASE_URL}/api/auth/signup`, JSON.stringify({
+    firstName: 'Load', lastName: 'Test', email: EMAIL, password: PASSWORD,
+  }), { headers: JSON_HEADERS });
+
+  const signin = http.post(`${BASE_URL}/api/auth/signin`,
+    JSON.stringify({ email: EMAIL, password: PASSWORD }), { headers: JSON_HEADERS });
+  if (signin.status !== 200) {
+    throw new Error(`Sign-in failed: ${signin.status} ${signin.body}`);
+  }
+  const token = signin.json('token');
+  const headers = { ...JSON_HEADERS, Authorization: `Bearer ${token}` };
+
+  const startDate = new Date();
+  const endDate = new Date(startDate.getTime() + 30 * 24 * 60 * 60 * 1000);
+  const plan = http.post(`${BASE_URL}/api/learning-plan`, JSON.stringify({
+    title: 'Load test plan',
+    description: 'Target of the comment load test',
+    startDate: startDate.toISOString(),
+    endDate: endDate.toISOString(),
+    topics: [],
+  }), { headers });
+  if (plan.status !== 200) {
+    throw new Error(`Creating the plan failed: ${plan.status} ${plan.body}`);
+  }
+  return { headers, planId: plan.json('id') };
+}
+
+export default function (data) {
+  const created = http.post(`${BASE_URL}/api/comments`, JSON.stringify({
+    postId: data.planId,
+    username: 'Load Test',
+    text: `Load test comment from VU ${__VU}, iteration ${__ITER}`,
+  }), { headers: data.headers, tags: { name: 'POST /api/comments' } });
+  check(created, { 'comment created': (r) => r.status === 200 });
+
+  const page = http.get(`${BASE_URL}/api/comments/post/${data.planId}/page?limit=20`,
+    { headers: data.headers, tags: { name: 'GET /api/comments/post/{postId}/page' } });
+  check(page, { 'page read': (r) => r.status === 200 });
+}
@@ -0,0 +1,55 @@
+#!/usr/bin/env bash
+# Compares request throughput with platform threads (Tomcat's pool of 200) and virtual threads
+# at increasing concurrency. Builds the backend, starts it once per mode against the database
+# configured in application.properties (or SPRING_DATA_MONGODB_URI), runs comment-load.js at
+# each level and prints requests/s and p95 latency per mode.
+#
+#   loadtest/compare-threading.sh                  # 50 200 800 virtual users, 60s each
+#   VUS_LEVELS="100 1000" DURATION=30s loadtest/compare-threading.sh
+#
+# Requires k6 and curl on the PATH.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+VUS_LEVELS=${VUS_LEVELS:-"50 200 800"}
+DURATION=${DURATION:-60s}
+PORT=${PORT:-8000}
+RESULTS=target/loadtest
+# The backend refuses to start without a signing key; any key will do for a local run
+export JWT_SECRET=${JWT_SECRET:-$(openssl rand -base64 32)}
+mkdir -p "$RESULTS"
+
+./mvnw -B -q -DskipTests package
+JAR=$(ls target/*.jar | grep -v original | head -1)
+
+for virtual in false true; do
+  java -jar "$JAR" --server.port="$PORT" --spring.threads.virtual.enabled="$virtual" \
+    > "$RESULTS/backend-virtual-$virtual.log" 2>&1 &
+  backend=$!
+  trap 'kill $backend 2>/dev/null || true' EXIT
+  until curl -sf "http://localhost:$PORT/actuator/health" > /dev/null; do sleep 1; done
+
+  for vus in $VUS_LEVELS; do
+    k6 run --quiet -e BASE_URL="http://localhost:$PORT" -e VUS="$vus" -e DURATION="$DURATION" \
+      --summary-export "$RESULTS/virtual-$virtual-vus-$vus.json" loadtest/comment-load.js \
+      > "$RESULTS/k6-virtual-$virtual-vus-$vus.log" 2>&1 \
+      || { echo "k6 failed, see $RESULTS/k6-virtual-$virtual-vus-$vus.log" >&2; exit 1; }
+  done
+
+  kill $backend
+  wait $backend 2>/dev/null || true
+done
+
+printf '%-8s %6s %12s %10s %8s\n' threads vus 'req/s' 'p95 ms' failed
+for virtual in false true; do
+  for vus in $VUS_LEVELS; do
+    summary="$RESULTS/virtual-$virtual-vus-$vus.json"
+    python3 - "$summary" "$virtual" "$vus" <<'PY'
+import json, sys
+metrics = json.load(open(sys.argv[1]))["metrics"]
+threads = "virtual" if sys.argv[2] == "true" else "platform"
+print(f'{threads:<8} {sys.argv[3]:>6} {metrics["http_reqs"]["rate"]:>12.1f} '
+      f'{metrics["http_req_duration"]["p(95)"]:>10.1f} {metrics["http_req_failed"]["value"]:>8.2%}')
+PY
+  done
+done
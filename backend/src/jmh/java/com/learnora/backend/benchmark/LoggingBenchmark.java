@@ -0,0 +1,159 @@
+package com.learnora.backend.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.joran.JoranConfigurator;
+import com.learnora.backend.dto.PlanOwnerInfo;
+import com.learnora.backend.filter.JwtRequestFilter;
+import com.learnora.backend.model.CommentModel;
+import com.learnora.backend.model.UserModel;
+import com.learnora.backend.repository.CommentRepository;
+import com.learnora.backend.repository.UserRepository;
+import com.learnora.backend.service.CommentService;
+import com.learnora.backend.service.CustomUserDetailsService;
+import com.learnora.backend.service.LearningPlanService;
+import com.learnora.backend.service.NotificationService;
+import com.learnora.backend.service.PrincipalCache;
+import com.learnora.backend.util.JwtUtil;
+import com.learnora.backend.util.TaskScopes;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput of the comment and authentication request paths under each logging setup: a
+ * synchronous appender versus the bounded async appender of logback-spring.xml, with
+ * com.learnora at DEBUG (the old default) or INFO. Repositories and downstream services are
+ * mocks, so the difference between configurations is the cost of logging.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoggingBenchmark {
+    private static final String BENCHMARK_SECRET = "bGVhcm5vcmEtYmVuY2htYXJrLXNpZ25pbmcta2V5LTAx";
+
+    @Param({"sync", "async"})
+    private String appender;
+
+    @Param({"DEBUG", "INFO"})
+    private String level;
+
+    private CommentService commentService;
+    private JwtRequestFilter jwtRequestFilter;
+    private String bearerToken;
+
+    @Setup
+    public void setUp() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        JoranConfigurator configurator = new JoranConfigurator();
+        configurator.setContext(context);
+        configurator.doConfigure(LoggingBenchmark.class.getResource("/logback-benchmark-" + appender + ".xml"));
+        context.getLogger("com.learnora").setLevel(Level.toLevel(level));
+
+        commentService = commentService();
+        jwtRequestFilter = jwtRequestFilter();
+    }
+
+    @TearDown
+    public void tearDown() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+    }
+
+    @Benchmark
+    public CommentModel createComment() throws Exception {
+        CommentModel comment = new CommentModel();
+        comment.setPostId("plan-1");
+        comment.setUserId("learner@example.com");
+        comment.setUsername("Lea Learner");
+        comment.setText("Great course, the second topic helped a lot with the exercises.");
+        return commentService.createComment(comment);
+    }
+
+    @Benchmark
+    public int authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/learning-plan/plan-1");
+        request.addHeader("Authorization", bearerToken);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            jwtRequestFilter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    private CommentService commentService() {
+        UserModel user = new UserModel();
+        user.setEmail("learner@example.com");
+        user.setFirstName("Lea");
+        user.setLastName("Learner");
+
+        CommentRepository commentRepository = mock(CommentRepository.class);
+        when(commentRepository.save(any(CommentModel.class))).thenAnswer(invocation -> {
+            CommentModel saved = invocation.getArgument(0);
+            saved.setId("comment-1");
+            return saved;
+        });
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByEmail("learner@example.com")).thenReturn(Optional.of(user));
+        LearningPlanService learningPlanService = mock(LearningPlanService.class);
+        when(learningPlanService.getPlanOwnerInfo("plan-1"))
+                .thenReturn(Optional.of(new PlanOwnerInfo("plan-1", "Synthetic plan", "author@example.com")));
+
+        CommentService service = new CommentService();
+        ReflectionTestUtils.setField(service, "commentRepository", commentRepository);
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "learningPlanService", learningPlanService);
+        ReflectionTestUtils.setField(service, "notificationService", mock(NotificationService.class));
+        ReflectionTestUtils.setField(service, "taskScopes", new TaskScopes(false));
+        return service;
+    }
+
+    // A principal cache of size zero makes every request verify its token and load the user
+    private JwtRequestFilter jwtRequestFilter() {
+        JwtUtil jwtUtil = new JwtUtil(BENCHMARK_SECRET);
+        bearerToken = "Bearer " + jwtUtil.generateToken("learner@example.com");
+        CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+        when(userDetailsService.loadUserByUsername(anyString()))
+                .thenReturn(new User("learner@example.com", "", List.of()));
+
+        JwtRequestFilter filter = new JwtRequestFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", new PrincipalCache(0, 300));
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        return filter;
+    }
+}
@@ -0,0 +1,151 @@
+package com.learnora.backend.benchmark;
+
+import com.learnora.backend.model.CommentModel;
+import com.learnora.backend.model.LearningPlanModel;
+import com.learnora.backend.model.ProgressTemplate;
+import com.learnora.backend.model.UserModel;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic generators for benchmark inputs. Every generator takes its size from the
+ * benchmark parameters and uses a fixed seed, so runs on different machines or commits measure
+ * the same data.
+ */
+public final class SyntheticData {
+    private static final long SEED = 42L;
+
+    private static final String[] FIRST_NAMES = {
+            "John", "Johanna", "Jonas", "Maria", "Mario", "José", "Ana", "Anders", "Priya", "Chen",
+            "Fatima", "Olga", "Kwame", "Lucía", "Noah", "Amara", "Yuki", "Omar", "Ingrid", "Tomás"
+    };
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Núñez", "Garcia", "Müller", "Nguyen", "Okafor", "Silva", "Kowalski",
+            "Haddad", "Tanaka", "Jones", "Rossi", "Patel", "Andersen", "Dubois", "Ivanova", "Mensah"
+    };
+
+    private SyntheticData() {}
+
+    /**
+     * A comment thread in the order it comes back from the database: about a third top-level
+     * comments, the rest replies to a random earlier comment.
+     */
+    public static List<CommentModel> commentThread(int size) {
+        Random random = new Random(SEED);
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<CommentModel> comments = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CommentModel comment = new CommentModel();
+            comment.setId("c" + i);
+            comment.setPostId("plan-1");
+            comment.setUserId("user" + random.nextInt(500) + "@example.com");
+            comment.setUsername("user" + i);
+            comment.setText(text(random, 20 + random.nextInt(200)));
+            comment.setCreatedAt(start.plusMinutes(i));
+            if (i > 0 && random.nextInt(3) != 0) {
+                comment.setParentId("c" + random.nextInt(i));
+            }
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    /**
+     * A progress template with the given number of topics, each with itemsPerTopic custom
+     * items, and random progress on everything.
+     */
+    public static ProgressTemplate progressTemplate(int topics, int itemsPerTopic, String calculationMethod) {
+        Random random = new Random(SEED);
+        ProgressTemplate template = new ProgressTemplate();
+        template.setCalculationMethod(calculationMethod);
+        List<ProgressTemplate.TopicProgress> topicProgress = new ArrayList<>(topics);
+        List<ProgressTemplate.CustomItem> items = new ArrayList<>(topics * itemsPerTopic);
+        for (int t = 0; t < topics; t++) {
+            ProgressTemplate.TopicProgress topic = new ProgressTemplate.TopicProgress();
+            topic.setTopicId("t" + t);
+            topic.setTopicName("Topic " + t);
+            topic.setCurrentProgress(random.nextInt(101));
+            topicProgress.add(topic);
+            for (int i = 0; i < itemsPerTopic; i++) {
+                ProgressTemplate.CustomItem item = new ProgressTemplate.CustomItem();
+                item.setId("t" + t + "-i" + i);
+                item.setName("Target " + i);
+                item.setTopicId("t" + t);
+                item.setCurrentProgress(random.nextInt(101));
+                items.add(item);
+            }
+        }
+        template.setTopics(topicProgress);
+        template.setCustomItems(items);
+        return template;
+    }
+
+    /**
+     * A learning plan with the given number of topics, about half of them completed. A
+     * positive imageBytes embeds a base64 data URL of that size, as plans stored before images
+     * moved to GridFS still carry; zero uses a media URL.
+     */
+    public static LearningPlanModel learningPlan(int topics, int imageBytes) {
+        Random random = new Random(SEED);
+        LearningPlanModel plan = new LearningPlanModel("author@example.com", "Synthetic plan",
+                text(random, 500), new Date(), new Date(), null, null);
+        plan.setId("plan-" + topics);
+        List<LearningPlanModel.Topic> topicList = new ArrayList<>(topics);
+        for (int i = 0; i < topics; i++) {
+            LearningPlanModel.Topic topic = new LearningPlanModel.Topic();
+            topic.setTitle("Topic " + i);
+            topic.setResources("https://example.com/resources/" + i + " " + text(random, 100));
+            topic.setCompleted(random.nextBoolean());
+            topicList.add(topic);
+        }
+        plan.setTopics(topicList);
+        if (imageBytes > 0) {
+            byte[] image = new byte[imageBytes];
+            random.nextBytes(image);
+            plan.setImageUrl("data:image/png;base64," + Base64.getEncoder().encodeToString(image));
+        } else {
+            plan.setImageUrl("/api/media/" + plan.getId());
+        }
+        return plan;
+    }
+
+    /**
+     * Search candidates as returned by the searchTokens prefix query for the given term: every
+     * user has at least one name word starting with it.
+     */
+    public static List<UserModel> searchCandidates(int size, String term) {
+        Random random = new Random(SEED);
+        String prefix = Character.toUpperCase(term.charAt(0)) + term.substring(1);
+        List<UserModel> users = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            UserModel user = new UserModel();
+            user.setId("u" + i);
+            String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+            String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+            if (random.nextBoolean()) {
+                first = prefix + first.toLowerCase();
+            } else {
+                last = prefix + last.toLowerCase();
+            }
+            user.setFirstName(first);
+            user.setLastName(last);
+            user.setEmail("user" + i + "@example.com");
+            user.setPhotoURL("https://example.com/photos/" + i + ".jpg");
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static String text(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append(random.nextInt(6) == 0 ? ' ' : (char) ('a' + random.nextInt(26)));
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,52 @@
+package com.learnora.backend.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.learnora.backend.benchmark.SyntheticData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization of a learning plan with the ObjectMapper defaults Spring MVC uses.
+ * imageBytes of 0 is a plan whose image lives in GridFS; larger values are legacy plans that
+ * still embed the image as a data URL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LearningPlanSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int topics;
+
+    @Param({"0", "262144"})
+    private int imageBytes;
+
+    private ObjectMapper objectMapper;
+    private LearningPlanModel plan;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        plan = SyntheticData.learningPlan(topics, imageBytes);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws Exception {
+        return objectMapper.writeValueAsBytes(plan);
+    }
+}
@@ -0,0 +1,43 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.benchmark.SyntheticData;
+import com.learnora.backend.model.CommentModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentTreeBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int size;
+
+    private List<CommentModel> comments;
+
+    @Setup
+    public void setUp() {
+        comments = SyntheticData.commentThread(size);
+    }
+
+    // Linking only sets each comment's replies, so the same thread can be rebuilt every call
+    @Benchmark
+    public List<CommentModel> buildCommentTree() {
+        return CommentService.buildCommentTree(comments);
+    }
+}
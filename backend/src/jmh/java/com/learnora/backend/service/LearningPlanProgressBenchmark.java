@@ -0,0 +1,41 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.benchmark.SyntheticData;
+import com.learnora.backend.model.LearningPlanModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LearningPlanProgressBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int topics;
+
+    private LearningPlanModel plan;
+
+    @Setup
+    public void setUp() {
+        plan = SyntheticData.learningPlan(topics, 0);
+    }
+
+    @Benchmark
+    public Integer calculateProgress() {
+        return LearningPlanService.calculateProgress(plan);
+    }
+}
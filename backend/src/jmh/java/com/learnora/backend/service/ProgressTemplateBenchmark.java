@@ -0,0 +1,49 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.benchmark.SyntheticData;
+import com.learnora.backend.model.ProgressTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProgressTemplateBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int topics;
+
+    @Param({"5"})
+    private int itemsPerTopic;
+
+    @Param({"byTopics", "byTargets"})
+    private String calculationMethod;
+
+    private ProgressTemplate template;
+
+    @Setup
+    public void setUp() {
+        template = SyntheticData.progressTemplate(topics, itemsPerTopic, calculationMethod);
+    }
+
+    // Percentages are recomputed from scratch each call, so reusing the template is safe
+    @Benchmark
+    public double calculatePercentages() {
+        ProgressTemplateService.calculatePercentages(template);
+        return template.getTotalProgress();
+    }
+}
@@ -0,0 +1,51 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.benchmark.SyntheticData;
+import com.learnora.backend.dto.PublicProfile;
+import com.learnora.backend.model.UserModel;
+import com.learnora.backend.util.NameNormalizer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of searchUsers: normalizing the term and ranking the candidates returned
+ * by the prefix query. The query itself is an index lookup and is not measured here.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserSearchBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int candidates;
+
+    @Param({"Jo", "José Nú"})
+    private String query;
+
+    private List<UserModel> users;
+
+    @Setup
+    public void setUp() {
+        users = SyntheticData.searchCandidates(candidates, NameNormalizer.normalize(query));
+    }
+
+    @Benchmark
+    public List<PublicProfile> rankSearchResults() {
+        return UserService.rankSearchResults(users, NameNormalizer.normalize(query), 10);
+    }
+}
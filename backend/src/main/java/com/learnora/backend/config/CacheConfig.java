@@ -0,0 +1,56 @@
+package com.learnora.backend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Caches used by the services through Spring's cache annotations, so the backing store can be
+ * swapped (for a distributed cache, say) by providing another CacheManager without touching
+ * the services. The default keeps bounded Caffeine caches in process and records hit/miss
+ * statistics for each of them.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String PLANS = "plans";
+    public static final String PLAN_OWNERS = "planOwners";
+
+    @Bean
+    @ConditionalOnProperty(name = "learnora.cache.type", havingValue = "caffeine", matchIfMissing = true)
+    public CacheManager cacheManager(@Value("${learnora.cache.plans.max-size:5000}") long plansMaxSize,
+                                     @Value("${learnora.cache.plans.ttl-seconds:300}") long plansTtlSeconds,
+                                     @Value("${learnora.cache.plan-owners.max-size:20000}") long ownersMaxSize,
+                                     @Value("${learnora.cache.plan-owners.ttl-seconds:600}") long ownersTtlSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PLANS, boundedCache(plansMaxSize, plansTtlSeconds));
+        cacheManager.registerCustomCache(PLAN_OWNERS, boundedCache(ownersMaxSize, ownersTtlSeconds));
+        // Only the caches above exist; an unknown cache name fails instead of growing unbounded
+        cacheManager.setCacheNames(List.of());
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "learnora.cache.type", havingValue = "none")
+    public CacheManager noOpCacheManager() {
+        return new NoOpCacheManager();
+    }
+
+    private static Cache<Object, Object> boundedCache(long maxSize, long ttlSeconds) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+}
@@ -0,0 +1,58 @@
+package com.learnora.backend.config;
+
+import com.mongodb.event.CommandEvent;
+import com.mongodb.event.CommandStartedEvent;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.mongodb.DefaultMongoCommandTagsProvider;
+import io.micrometer.core.instrument.binder.mongodb.MongoCommandTagsProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Metrics that Spring Boot does not set up by itself. HTTP endpoints, repository calls, caches
+ * and Mongo commands are timed by the auto-configuration; service methods through {@code @Timed}
+ * on each service; queues and caches of our own components through their MeterBinder.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Tags every Mongo command with the endpoint that issued it, so database time can be
+     * attributed per route. The sync driver reports commands on the calling thread; commands
+     * from background writers and jobs, and all commands of the reactive stack, which has no
+     * request thread to read the route from, are tagged "background".
+     */
+    @Bean
+    public MongoCommandTagsProvider mongoCommandTagsProvider() {
+        DefaultMongoCommandTagsProvider defaults = new DefaultMongoCommandTagsProvider();
+        return new MongoCommandTagsProvider() {
+            @Override
+            public Iterable<Tag> commandTags(CommandEvent event) {
+                return Tags.of(defaults.commandTags(event)).and("endpoint", currentEndpoint());
+            }
+
+            // The defaults remember each command's collection here, by request id
+            @Override
+            public void commandStarted(CommandStartedEvent event) {
+                defaults.commandStarted(event);
+            }
+        };
+    }
+
+    private static String currentEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return "background";
+        }
+        HttpServletRequest request = servletAttributes.getRequest();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Lookups done by filters (e.g. loading the principal) run before a handler is matched
+        return request.getMethod() + " " + (pattern != null ? pattern : "filter");
+    }
+}
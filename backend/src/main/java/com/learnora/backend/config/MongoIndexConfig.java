@@ -0,0 +1,91 @@
+package com.learnora.backend.config;
+
+import com.learnora.backend.model.NotificationModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Creates the indexes declared with {@code @Indexed}/{@code @CompoundIndex} on the models once the
+ * application is up. Unlike {@code spring.data.mongodb.auto-index-creation}, this runs off the
+ * startup thread and an unreachable database only produces a warning instead of failing startup.
+ * The repository query plans are verified against them right after.
+ */
+@Configuration
+public class MongoIndexConfig {
+    private static final Logger logger = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Value("${learnora.notifications.read-retention-days:30}")
+    private long readNotificationRetentionDays;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleIndexCreation() {
+        Thread indexThread = new Thread(() -> {
+            ensureIndexes();
+            // Plans only say something once the indexes exist
+            queryPlanVerifier.verifyOnStartup();
+        }, "mongo-index-init");
+        indexThread.setDaemon(true);
+        indexThread.start();
+    }
+
+    public void ensureIndexes() {
+        ensureAnnotatedIndexes();
+        ensureNotificationRetentionIndex();
+    }
+
+    private void ensureAnnotatedIndexes() {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoMappingContext);
+        for (MongoPersistentEntity<?> entity : mongoMappingContext.getPersistentEntities()) {
+            if (!entity.isAnnotationPresent(Document.class)) {
+                continue;
+            }
+            try {
+                IndexOperations indexOps = mongoTemplate.indexOps(entity.getType());
+                resolver.resolveIndexFor(entity.getType()).forEach(indexOps::ensureIndex);
+            } catch (Exception e) {
+                logger.warn("Could not ensure indexes for {}: {}", entity.getCollection(), e.getMessage());
+            }
+        }
+    }
+
+    // TTL on readAt, which is only set once a notification is read, so unread ones never expire.
+    // Changing the retention of an existing index needs the index dropped first.
+    private void ensureNotificationRetentionIndex() {
+        if (readNotificationRetentionDays <= 0) {
+            return;
+        }
+        try {
+            mongoTemplate.indexOps(NotificationModel.class).ensureIndex(new Index()
+                    .on("readAt", Sort.Direction.ASC)
+                    .named("readAt_ttl")
+                    .expire(Duration.ofDays(readNotificationRetentionDays)));
+        } catch (Exception e) {
+            logger.warn("Could not ensure notification retention index: {}", e.getMessage());
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,46 @@
+package com.learnora.backend.config;
+
+import com.learnora.backend.dto.QueryPlanCheck;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code /actuator/queryplans}: the last query plan report of {@link QueryPlanVerifier}, with
+ * collection scans listed first. POST re-runs the verification, e.g. after creating an index.
+ * Admin only, like the other actuator endpoints apart from health and prometheus.
+ */
+@Component
+@Endpoint(id = "queryplans")
+public class QueryPlanEndpoint {
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @ReadOperation
+    public Map<String, Object> report() {
+        return toReport(queryPlanVerifier.getLastReport());
+    }
+
+    @WriteOperation
+    public Map<String, Object> verify() {
+        return toReport(queryPlanVerifier.verify());
+    }
+
+    private Map<String, Object> toReport(List<QueryPlanCheck> checks) {
+        List<QueryPlanCheck> collectionScans = checks.stream().filter(QueryPlanCheck::isCollectionScan).toList();
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("verifiedAt", queryPlanVerifier.getLastVerifiedAt());
+        report.put("queries", checks.size());
+        report.put("collectionScans", collectionScans);
+        report.put("errors", checks.stream().filter(check -> check.getError() != null).toList());
+        report.put("plans", checks);
+        return report;
+    }
+}
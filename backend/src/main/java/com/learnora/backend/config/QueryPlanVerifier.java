@@ -0,0 +1,214 @@
+package com.learnora.backend.config;
+
+import com.learnora.backend.dto.QueryPlanCheck;
+import com.mongodb.MongoTimeoutException;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.mapping.PersistentPropertyPath;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.data.repository.query.parser.Part;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs explain() on the query of every repository query method, derived or {@code @Query}, and
+ * reports those whose winning plan scans the whole collection. Parameters are replaced with
+ * sample values of their type; index selection does not depend on them.
+ *
+ * Runs once after startup, right after the indexes are ensured, and on demand through the
+ * {@code queryplans} actuator endpoint. QueryPlanVerifierTest fails the build when a query
+ * collection-scans against the declared indexes.
+ */
+@Component
+public class QueryPlanVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    private static final Pattern PARAMETER_PLACEHOLDER = Pattern.compile("\\?(\\d+)");
+    private static final String SAMPLE_STRING = "query-plan-probe";
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MongoMappingContext mongoMappingContext;
+
+    @Value("${learnora.query-plans.verify-on-startup:true}")
+    private boolean verifyOnStartup;
+
+    private volatile List<QueryPlanCheck> lastReport = List.of();
+    private volatile Date lastVerifiedAt;
+
+    public void verifyOnStartup() {
+        if (verifyOnStartup) {
+            verify();
+        }
+    }
+
+    public List<QueryPlanCheck> verify() {
+        List<QueryPlanCheck> report = new ArrayList<>();
+        for (RepositoryInformation repository : repositories()) {
+            String collection = mongoMappingContext.getRequiredPersistentEntity(repository.getDomainType()).getCollection();
+            for (Method method : repository.getQueryMethods()) {
+                QueryPlanCheck check;
+                try {
+                    check = explain(repository, method, collection);
+                } catch (MongoTimeoutException e) {
+                    logger.warn("Query plan verification stopped, database unreachable: {}", e.getMessage());
+                    return lastReport;
+                }
+                if (check.isCollectionScan()) {
+                    logger.warn("Collection scan: {}", check);
+                } else if (check.getError() != null) {
+                    logger.warn("Could not explain {}", check);
+                }
+                report.add(check);
+            }
+        }
+
+        long scans = report.stream().filter(QueryPlanCheck::isCollectionScan).count();
+        logger.info("Verified query plans of {} repository queries, {} collection scans", report.size(), scans);
+        lastReport = List.copyOf(report);
+        lastVerifiedAt = new Date();
+        return lastReport;
+    }
+
+    public List<QueryPlanCheck> getLastReport() {
+        return lastReport;
+    }
+
+    public Date getLastVerifiedAt() {
+        return lastVerifiedAt;
+    }
+
+    // Reactive and blocking repositories of the same model are both checked
+    private List<RepositoryInformation> repositories() {
+        @SuppressWarnings("rawtypes")
+        Collection<RepositoryFactoryInformation> factories =
+            applicationContext.getBeansOfType(RepositoryFactoryInformation.class, false, false).values();
+        return factories.stream()
+            .map(RepositoryFactoryInformation::getRepositoryInformation)
+            .sorted(Comparator.comparing(information -> information.getRepositoryInterface().getSimpleName()))
+            .toList();
+    }
+
+    private QueryPlanCheck explain(RepositoryInformation repository, Method method, String collection) {
+        Document filter;
+        try {
+            filter = filterOf(method, repository.getDomainType());
+        } catch (RuntimeException e) {
+            QueryPlanCheck check = new QueryPlanCheck(repository.getRepositoryInterface().getSimpleName(), method.getName(), collection, null);
+            check.setError(e.getMessage());
+            return check;
+        }
+
+        QueryPlanCheck check = new QueryPlanCheck(
+            repository.getRepositoryInterface().getSimpleName(), method.getName(), collection, filter.toJson());
+        try {
+            Document explain = mongoTemplate.getCollection(collection).find(filter).explain();
+            Set<String> stages = new LinkedHashSet<>();
+            Set<String> indexes = new LinkedHashSet<>();
+            collectPlan(explain.get("queryPlanner", Document.class).get("winningPlan"), stages, indexes);
+            check.setStages(List.copyOf(stages));
+            check.setIndexes(List.copyOf(indexes));
+            check.setCollectionScan(stages.contains("COLLSCAN"));
+        } catch (MongoTimeoutException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            check.setError(e.getMessage());
+        }
+        return check;
+    }
+
+    private Document filterOf(Method method, Class<?> domainType) {
+        Query query = AnnotatedElementUtils.findMergedAnnotation(method, Query.class);
+        if (query != null && !query.value().isEmpty()) {
+            return annotatedFilter(query.value(), method);
+        }
+
+        List<Document> branches = new ArrayList<>();
+        for (PartTree.OrPart orPart : new PartTree(method.getName(), domainType)) {
+            Document branch = new Document();
+            for (Part part : orPart) {
+                PersistentPropertyPath<MongoPersistentProperty> path =
+                    mongoMappingContext.getPersistentPropertyPath(part.getProperty());
+                branch.append(path.toDotPath(MongoPersistentProperty::getFieldName), sampleCondition(part));
+            }
+            branches.add(branch);
+        }
+        return branches.size() == 1 ? branches.get(0) : new Document("$or", branches);
+    }
+
+    private static Object sampleCondition(Part part) {
+        return switch (part.getType()) {
+            case TRUE -> true;
+            case FALSE -> false;
+            case IS_NULL -> null;
+            case IS_NOT_NULL, EXISTS -> new Document("$exists", true);
+            case IN, NOT_IN -> new Document("$in", List.of(sampleValue(part.getProperty().getLeafType())));
+            default -> sampleValue(part.getProperty().getLeafType());
+        };
+    }
+
+    // Replaces ?0, ?1, ... in a @Query filter with a sample literal for the parameter's type
+    private static Document annotatedFilter(String json, Method method) {
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        Matcher matcher = PARAMETER_PLACEHOLDER.matcher(json);
+        StringBuilder filter = new StringBuilder();
+        while (matcher.find()) {
+            Object sample = sampleValue(parameterTypes[Integer.parseInt(matcher.group(1))]);
+            String literal = sample instanceof String ? "\"" + sample + "\"" : String.valueOf(sample);
+            matcher.appendReplacement(filter, Matcher.quoteReplacement(literal));
+        }
+        matcher.appendTail(filter);
+        return Document.parse(filter.toString());
+    }
+
+    private static Object sampleValue(Class<?> type) {
+        if (type == boolean.class || type == Boolean.class) {
+            return true;
+        }
+        if (type.isPrimitive() || Number.class.isAssignableFrom(type)) {
+            return 0;
+        }
+        return SAMPLE_STRING;
+    }
+
+    // Walks the winning plan, which nests differently for the classic and slot-based engines
+    private static void collectPlan(Object node, Set<String> stages, Set<String> indexes) {
+        if (node instanceof Document document) {
+            if (document.get("stage") instanceof String stage) {
+                stages.add(stage);
+            }
+            if (document.get("indexName") instanceof String index) {
+                indexes.add(index);
+            }
+            document.values().forEach(value -> collectPlan(value, stages, indexes));
+        } else if (node instanceof List<?> list) {
+            list.forEach(value -> collectPlan(value, stages, indexes));
+        }
+    }
+}
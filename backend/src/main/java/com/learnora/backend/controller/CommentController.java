@@ -1,8 +1,10 @@
 package com.learnora.backend.controller;
 
+import com.learnora.backend.dto.CursorPage;
 import com.learnora.backend.model.CommentModel;
 import com.learnora.backend.service.CommentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -11,6 +13,7 @@ import org.springframework.web.bind.annotation.*;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/comments")
 @CrossOrigin(origins = "http://localhost:3000")
 public class CommentController {
@@ -43,6 +46,36 @@ public class CommentController {
         }
     }
 
+    @GetMapping("/post/{postId}/page")
+    public ResponseEntity<?> getTopLevelComments(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            String userEmail = auth.getName();
+            CursorPage<CommentModel> page = commentService.getTopLevelComments(postId, userEmail, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<?> getReplies(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            String userEmail = auth.getName();
+            CursorPage<CommentModel> page = commentService.getReplies(id, userEmail, cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<?> updateComment(@PathVariable String id, @RequestBody CommentModel updates) {
         try {
@@ -1,21 +1,29 @@
 package com.learnora.backend.controller;
 
+import com.learnora.backend.dto.CursorPage;
+import com.learnora.backend.dto.LearningPlanSummary;
 import com.learnora.backend.model.LearningPlanModel;
 import com.learnora.backend.service.LearningPlanService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/learning-plan")
 @CrossOrigin(origins = "http://localhost:3000")
 public class LearningPlanController {
+    private static final Logger logger = LoggerFactory.getLogger(LearningPlanController.class);
 
     @Autowired
     private LearningPlanService learningPlanService;
@@ -25,7 +33,6 @@ public class LearningPlanController {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String userEmail = auth.getName();
-            System.out.println("Received plan for creation: " + plan);
             LearningPlanModel createdPlan = learningPlanService.createPlan(userEmail, plan);
             return ResponseEntity.ok(createdPlan);
         } catch (Exception e) {
@@ -60,7 +67,6 @@ public class LearningPlanController {
         try {
             Authentication auth = SecurityContextHolder.getContext().getAuthentication();
             String userEmail = auth.getName();
-            System.out.println("Received plan for update: " + plan);
             LearningPlanModel updatedPlan = learningPlanService.updatePlan(userEmail, plan);
             return ResponseEntity.ok(updatedPlan);
         } catch (Exception e) {
@@ -83,16 +89,25 @@ public class LearningPlanController {
     @GetMapping("/shared")
     public ResponseEntity<?> getSharedPlans() {
         try {
-            System.out.println("Received request for shared plans");
             List<LearningPlanModel> sharedPlans = learningPlanService.getSharedPlans();
-            System.out.println("Found " + sharedPlans.size() + " shared plans");
             if (sharedPlans.isEmpty()) {
                 return ResponseEntity.ok(Collections.emptyList());
             }
             return ResponseEntity.ok(sharedPlans);
         } catch (Exception e) {
-            System.err.println("Error in getSharedPlans: " + e.getMessage());
-            e.printStackTrace();
+            logger.warn("Failed to load shared plans: {}", e.getMessage());
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/shared/page")
+    public ResponseEntity<?> getSharedPlanSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            CursorPage<LearningPlanSummary> page = learningPlanService.getSharedPlanSummaries(cursor, limit);
+            return ResponseEntity.ok(page);
+        } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
@@ -136,6 +151,37 @@ public class LearningPlanController {
         }
     }
 
+    // Batched variant: {"planId": "...", "topics": [{"topicIndex": 0, "completed": true}, ...]}
+    @PutMapping("/progress/topics")
+    public ResponseEntity<?> updateTopicsProgress(@RequestBody Map<String, Object> request) {
+        try {
+            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+            String userEmail = auth.getName();
+
+            String planId = (String) request.get("planId");
+            List<?> topics = (List<?>) request.get("topics");
+            if (planId == null || topics == null || topics.isEmpty()) {
+                return ResponseEntity.badRequest().body("Plan ID and at least one topic change are required");
+            }
+
+            Map<Integer, Boolean> changes = new LinkedHashMap<>();
+            for (Object item : topics) {
+                Map<?, ?> change = (Map<?, ?>) item;
+                Integer topicIndex = (Integer) change.get("topicIndex");
+                Boolean completed = (Boolean) change.get("completed");
+                if (topicIndex == null || completed == null) {
+                    return ResponseEntity.badRequest().body("Each topic change needs a topic index and completion status");
+                }
+                changes.put(topicIndex, completed);
+            }
+
+            LearningPlanModel updatedPlan = learningPlanService.updateTopicsProgress(userEmail, planId, changes);
+            return ResponseEntity.ok(updatedPlan);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/{planId}/progress")
     public ResponseEntity<?> getUserProgress(@PathVariable String planId) {
         try {
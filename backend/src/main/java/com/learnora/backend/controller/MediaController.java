@@ -0,0 +1,49 @@
+package com.learnora.backend.controller;
+
+import com.learnora.backend.service.MediaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@RestController
+@Profile("!reactive")
+@RequestMapping("/api/media")
+@CrossOrigin(origins = "http://localhost:3000")
+public class MediaController {
+
+    @Autowired
+    private MediaService mediaService;
+
+    // Media ids are content hashes, so the ETag never changes and the response can be cached
+    // forever. Range requests are handled by Spring for Resource bodies.
+    @GetMapping("/{id}")
+    public ResponseEntity<Resource> getMedia(@PathVariable String id, WebRequest request) throws IOException {
+        String etag = "\"" + id + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        Optional<GridFsResource> media = mediaService.load(id);
+        if (media.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        GridFsResource resource = media.get();
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable())
+                .contentType(MediaType.parseMediaType(resource.getContentType()))
+                .body(new ByteArrayResource(resource.getContentAsByteArray()));
+    }
+}
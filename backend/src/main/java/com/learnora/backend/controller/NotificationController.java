@@ -2,22 +2,41 @@ package com.learnora.backend.controller;
 
 import com.learnora.backend.model.NotificationModel;
 import com.learnora.backend.service.NotificationService;
+import com.learnora.backend.service.NotificationStreamRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/notifications")
 @CrossOrigin(origins = "http://localhost:3000")
 public class NotificationController {
     @Autowired
     private NotificationService notificationService;
 
+    @Autowired
+    private NotificationStreamRegistry streamRegistry;
+
+    // Server push replacing unread-count polling. Browsers send Last-Event-ID when reconnecting,
+    // which replays the events missed in between.
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamNotifications(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userEmail = auth.getName();
+        return streamRegistry.subscribe(userEmail, lastEventId, () -> notificationService.getUnreadCount(userEmail));
+    }
+
     @GetMapping("/user")
     public ResponseEntity<List<NotificationModel>> getUserNotifications() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -25,6 +44,19 @@ public class NotificationController {
         return ResponseEntity.ok(notificationService.getUserNotifications(userEmail));
     }
 
+    @GetMapping("/user/page")
+    public ResponseEntity<?> getNotificationsPage(@RequestParam(required = false) String cursor,
+                                                  @RequestParam(defaultValue = "20") int limit,
+                                                  @RequestParam(defaultValue = "false") boolean unread) {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String userEmail = auth.getName();
+        try {
+            return ResponseEntity.ok(notificationService.getNotificationsPage(userEmail, unread, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/user/unread")
     public ResponseEntity<List<NotificationModel>> getUnreadNotifications() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
@@ -47,11 +79,23 @@ public class NotificationController {
         return ResponseEntity.ok(notification);
     }
 
+    // Optional bounds: upTo (a notification id) or before (ISO timestamp) leave newer
+    // notifications unread, so a client only acknowledges what it has displayed.
     @PutMapping("/user/read-all")
-    public ResponseEntity<Void> markAllAsRead() {
+    public ResponseEntity<?> markAllAsRead(@RequestParam(required = false) String upTo,
+                                           @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime before) {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         String userEmail = auth.getName();
-        notificationService.markAllAsRead(userEmail);
-        return ResponseEntity.ok().build();
+        try {
+            long modified;
+            if (upTo != null) {
+                modified = notificationService.markReadUpToNotification(userEmail, upTo);
+            } else {
+                modified = notificationService.markReadUpTo(userEmail, before);
+            }
+            return ResponseEntity.ok(Map.of("modified", modified));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
\ No newline at end of file
@@ -1,23 +1,37 @@
 package com.learnora.backend.controller;
 
+import com.learnora.backend.dto.PostSummary;
 import com.learnora.backend.model.Post;
-import com.learnora.backend.model.CommentModel;
+import com.learnora.backend.model.PostCommentModel;
 import com.learnora.backend.service.PostService;
+import com.learnora.backend.service.TimelineService;
+import com.learnora.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @CrossOrigin(origins = "http://localhost:3000", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.PUT, RequestMethod.DELETE}, allowedHeaders = "*")
 @RequestMapping("/api")
 public class PostController {
     
+    private static final int FEED_PAGE_SIZE = 100;
+
     @Autowired
     private PostService postService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private TimelineService timelineService;
     
     @PostMapping("/create")
     public ResponseEntity<Post> addPost(@RequestBody Post post) {
@@ -25,10 +39,35 @@ public class PostController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdPost);
     }
     
+    // Kept for older clients: only the newest page of the feed
     @GetMapping("/Get")
-    public ResponseEntity<List<Post>> getAllPosts() {
-        List<Post> posts = postService.getAllPosts();
-        return ResponseEntity.ok(posts);
+    public ResponseEntity<List<PostSummary>> getAllPosts() {
+        return ResponseEntity.ok(postService.getFeed(null, null, FEED_PAGE_SIZE).getItems());
+    }
+
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(@RequestParam(required = false) String cursor,
+                                     @RequestParam(defaultValue = "20") int limit,
+                                     @RequestParam(defaultValue = "false") boolean following,
+                                     Authentication authentication) {
+        try {
+            List<String> authorIds = following ? userService.getFollowingIds(authentication.getName()) : null;
+            return ResponseEntity.ok(postService.getFeed(authorIds, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+    
+    // Home timeline: posts by followed users, newest first
+    @GetMapping("/timeline")
+    public ResponseEntity<?> getTimeline(@RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int limit,
+                                         Authentication authentication) {
+        try {
+            return ResponseEntity.ok(timelineService.getTimeline(authentication.getName(), cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
     @GetMapping("/{postUId}")
@@ -62,10 +101,20 @@ public class PostController {
     }
     
     @PutMapping("/like/{postId}")
-    public ResponseEntity<Post> likePost(@PathVariable String postId) {
-        Post updatedPost = postService.likePost(postId);
-        if (updatedPost != null) {
-            return ResponseEntity.ok(updatedPost);
+    public ResponseEntity<Map<String, Object>> likePost(@PathVariable String postId) {
+        Integer likes = postService.likePost(postId);
+        if (likes != null) {
+            return ResponseEntity.ok(Map.of("id", postId, "likes", likes));
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PutMapping("/unlike/{postId}")
+    public ResponseEntity<Map<String, Object>> unlikePost(@PathVariable String postId) {
+        Integer likes = postService.unlikePost(postId);
+        if (likes != null) {
+            return ResponseEntity.ok(Map.of("id", postId, "likes", likes));
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -78,19 +127,29 @@ public class PostController {
     }
     
     @PostMapping("/{postId}/comments")
-    public ResponseEntity<Post> addComment(@PathVariable String postId, @RequestBody CommentModel comment) {
-        Post updatedPost = postService.addComment(postId, comment);
-        if (updatedPost != null) {
-            return ResponseEntity.ok(updatedPost);
+    public ResponseEntity<PostCommentModel> addComment(@PathVariable String postId, @RequestBody PostCommentModel comment) {
+        PostCommentModel savedComment = postService.addComment(postId, comment);
+        if (savedComment != null) {
+            return ResponseEntity.status(HttpStatus.CREATED).body(savedComment);
         }
         return ResponseEntity.notFound().build();
     }
+
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<?> getComments(@PathVariable String postId,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(postService.getComments(postId, cursor, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
     
     @DeleteMapping("/{postId}/comments/{commentId}")
-    public ResponseEntity<Post> removeComment(@PathVariable String postId, @PathVariable String commentId) {
-        Post updatedPost = postService.removeComment(postId, commentId);
-        if (updatedPost != null) {
-            return ResponseEntity.ok(updatedPost);
+    public ResponseEntity<Void> removeComment(@PathVariable String postId, @PathVariable String commentId) {
+        if (postService.removeComment(postId, commentId)) {
+            return ResponseEntity.noContent().build();
         }
         return ResponseEntity.notFound().build();
     }
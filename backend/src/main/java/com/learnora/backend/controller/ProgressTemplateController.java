@@ -4,6 +4,7 @@ import com.learnora.backend.model.ProgressTemplate;
 import com.learnora.backend.service.ProgressTemplateService;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.security.core.Authentication;
@@ -13,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import java.util.List;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/progress-templates")
 @CrossOrigin(origins = "http://localhost:3000")
 public class ProgressTemplateController {
@@ -2,12 +2,15 @@ package com.learnora.backend.controller;
 
 import com.learnora.backend.service.ReactionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/reactions")
 @CrossOrigin(origins = "http://localhost:3000", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE})
 public class ReactionController {
@@ -38,6 +41,14 @@ public class ReactionController {
         return ResponseEntity.ok(reactionService.getReactionCounts(contentId, contentType));
     }
 
+    @GetMapping("/batch/{contentType}")
+    public ResponseEntity<Map<String, Map<String, Object>>> getReactionSummaries(
+            @PathVariable String contentType,
+            @RequestParam List<String> contentIds,
+            @RequestParam(required = false) String userId) {
+        return ResponseEntity.ok(reactionService.getReactionSummaries(contentIds, contentType, userId));
+    }
+
     @GetMapping("/user/{contentType}/{contentId}")
     public ResponseEntity<String> getUserReaction(
             @PathVariable String contentType,
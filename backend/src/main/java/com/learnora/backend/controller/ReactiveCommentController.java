@@ -0,0 +1,80 @@
+package com.learnora.backend.controller;
+
+import com.learnora.backend.model.CommentModel;
+import com.learnora.backend.service.ReactiveCommentService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+
+/**
+ * The comment API of {@link CommentController} on WebFlux, served under the "reactive" profile.
+ * Same routes, request bodies and responses.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/comments")
+@CrossOrigin(origins = "http://localhost:3000")
+public class ReactiveCommentController {
+
+    @Autowired
+    private ReactiveCommentService commentService;
+
+    @PostMapping
+    public Mono<ResponseEntity<?>> createComment(@RequestBody CommentModel comment, Principal principal) {
+        comment.setUserId(principal.getName());
+        return respond(commentService.createComment(comment));
+    }
+
+    @GetMapping("/post/{postId}")
+    public Mono<ResponseEntity<?>> getCommentsByPostId(@PathVariable String postId, Principal principal) {
+        return respond(commentService.getCommentsByPostId(postId, principal.getName()));
+    }
+
+    @GetMapping("/post/{postId}/page")
+    public Mono<ResponseEntity<?>> getTopLevelComments(
+            @PathVariable String postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Principal principal) {
+        return respond(commentService.getTopLevelComments(postId, principal.getName(), cursor, limit));
+    }
+
+    @GetMapping("/{id}/replies")
+    public Mono<ResponseEntity<?>> getReplies(
+            @PathVariable String id,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            Principal principal) {
+        return respond(commentService.getReplies(id, principal.getName(), cursor, limit));
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<?>> updateComment(@PathVariable String id, @RequestBody CommentModel updates, Principal principal) {
+        return respond(commentService.updateComment(id, updates, principal.getName()));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<?>> deleteComment(@PathVariable String id, Principal principal) {
+        return respond(commentService.deleteComment(id, principal.getName())
+            .thenReturn("Comment deleted successfully"));
+    }
+
+    @PostMapping("/{id}/toggle-visibility")
+    public Mono<ResponseEntity<?>> toggleCommentVisibility(
+            @PathVariable String id,
+            @RequestParam String userId) {
+        return commentService.toggleCommentVisibility(id, userId)
+            .then(Mono.<ResponseEntity<?>>fromSupplier(() -> ResponseEntity.ok().build()))
+            .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+
+    // Failures answer 400 with the message, as in CommentController
+    private static Mono<ResponseEntity<?>> respond(Mono<?> result) {
+        return result.<ResponseEntity<?>>map(ResponseEntity::ok)
+            .onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+    }
+}
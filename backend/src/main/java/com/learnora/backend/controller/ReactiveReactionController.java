@@ -0,0 +1,74 @@
+package com.learnora.backend.controller;
+
+import com.learnora.backend.service.ReactiveReactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The reaction API of {@link ReactionController} on WebFlux, served under the "reactive"
+ * profile. Same routes, parameters and responses.
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/reactions")
+@CrossOrigin(origins = "http://localhost:3000", allowedHeaders = "*", methods = {RequestMethod.GET, RequestMethod.POST, RequestMethod.DELETE})
+public class ReactiveReactionController {
+    @Autowired
+    private ReactiveReactionService reactionService;
+
+    @GetMapping("/test")
+    public Mono<ResponseEntity<Map<String, String>>> test() {
+        return Mono.just(ResponseEntity.ok(Map.of("status", "Reaction controller is working")));
+    }
+
+    @PostMapping("/{contentType}/{contentId}")
+    public Mono<ResponseEntity<Map<String, Object>>> addReaction(
+            @PathVariable String contentType,
+            @PathVariable String contentId,
+            @RequestParam String userId,
+            @RequestParam String reactionType,
+            @RequestParam String username) {
+        return reactionService.addReaction(userId, contentId, contentType, reactionType, username).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{contentType}/{contentId}")
+    public Mono<ResponseEntity<Map<String, Object>>> getReactionCounts(
+            @PathVariable String contentType,
+            @PathVariable String contentId) {
+        return reactionService.getReactionCounts(contentId, contentType).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/batch/{contentType}")
+    public Mono<ResponseEntity<Map<String, Map<String, Object>>>> getReactionSummaries(
+            @PathVariable String contentType,
+            @RequestParam List<String> contentIds,
+            @RequestParam(required = false) String userId) {
+        return reactionService.getReactionSummaries(contentIds, contentType, userId).map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/user/{contentType}/{contentId}")
+    public Mono<ResponseEntity<String>> getUserReaction(
+            @PathVariable String contentType,
+            @PathVariable String contentId,
+            @RequestParam String userId) {
+        return reactionService.getUserReaction(userId, contentId, contentType)
+            .map(ResponseEntity::ok)
+            .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    @DeleteMapping("/{contentType}/{contentId}")
+    public Mono<ResponseEntity<Void>> removeReaction(
+            @PathVariable String contentType,
+            @PathVariable String contentId,
+            @RequestParam String userId,
+            @RequestParam String username) {
+        return reactionService.removeReaction(userId, contentId, contentType, username)
+            .then(Mono.fromSupplier(() -> ResponseEntity.ok().<Void>build()));
+    }
+}
@@ -1,8 +1,10 @@
 package com.learnora.backend.controller;
 
+import com.learnora.backend.dto.PublicProfile;
 import com.learnora.backend.model.UserModel;
 import com.learnora.backend.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -10,6 +12,7 @@ import java.util.List;
 import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api")
 @CrossOrigin(origins = "http://localhost:3000")
 public class UserController {
@@ -111,9 +114,12 @@ public class UserController {
     }
 
     @GetMapping("/users/followers")
-    public ResponseEntity<?> getFollowers(@RequestParam String email) {
+    public ResponseEntity<?> getFollowers(
+            @RequestParam String email,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit) {
         try {
-            List<UserModel> followers = userService.getFollowers(email);
+            List<PublicProfile> followers = userService.getFollowers(email, offset, limit);
             return ResponseEntity.ok(followers);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -121,15 +127,28 @@ public class UserController {
     }
 
     @GetMapping("/users/following")
-    public ResponseEntity<?> getFollowing(@RequestParam String email) {
+    public ResponseEntity<?> getFollowing(
+            @RequestParam String email,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "100") int limit) {
         try {
-            List<UserModel> following = userService.getFollowing(email);
+            List<PublicProfile> following = userService.getFollowing(email, offset, limit);
             return ResponseEntity.ok(following);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    @GetMapping("/users/following/check")
+    public ResponseEntity<?> getFollowedAmong(@RequestParam String email, @RequestParam List<String> userIds) {
+        try {
+            List<String> followed = userService.getFollowedAmong(email, userIds);
+            return ResponseEntity.ok(followed);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PostMapping("/users/follow")
     public ResponseEntity<?> followUser(@RequestBody Map<String, String> request) {
         try {
@@ -161,9 +180,11 @@ public class UserController {
     }
 
     @GetMapping("/users/search")
-    public ResponseEntity<?> searchUsers(@RequestParam String username) {
+    public ResponseEntity<?> searchUsers(
+            @RequestParam String username,
+            @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<UserModel> users = userService.searchUsers(username);
+            List<PublicProfile> users = userService.searchUsers(username, limit);
             return ResponseEntity.ok(users);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
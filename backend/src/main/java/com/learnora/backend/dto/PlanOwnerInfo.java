@@ -0,0 +1,44 @@
+package com.learnora.backend.dto;
+
+/**
+ * Owner and title of a learning plan, all that comment and reaction handling needs to check
+ * permissions and word notifications.
+ */
+public class PlanOwnerInfo {
+    private String id;
+    private String title;
+    private String userEmail;
+
+    public PlanOwnerInfo() {
+    }
+
+    public PlanOwnerInfo(String id, String title, String userEmail) {
+        this.id = id;
+        this.title = title;
+        this.userEmail = userEmail;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getUserEmail() {
+        return userEmail;
+    }
+
+    public void setUserEmail(String userEmail) {
+        this.userEmail = userEmail;
+    }
+}
@@ -0,0 +1,65 @@
+package com.learnora.backend.dto;
+
+import com.learnora.backend.model.UserModel;
+
+/**
+ * Public view of a user for follower/following lists and search results. Never carries the
+ * password hash or the user's own relationship lists.
+ */
+public class PublicProfile {
+    private String id;
+    private String firstName;
+    private String lastName;
+    private String email;
+    private String photoURL;
+
+    public static PublicProfile from(UserModel user) {
+        PublicProfile profile = new PublicProfile();
+        profile.setId(user.getId());
+        profile.setFirstName(user.getFirstName());
+        profile.setLastName(user.getLastName());
+        profile.setEmail(user.getEmail());
+        profile.setPhotoURL(user.getPhotoURL());
+        return profile;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public void setFirstName(String firstName) {
+        this.firstName = firstName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public void setLastName(String lastName) {
+        this.lastName = lastName;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhotoURL() {
+        return photoURL;
+    }
+
+    public void setPhotoURL(String photoURL) {
+        this.photoURL = photoURL;
+    }
+}
@@ -0,0 +1,97 @@
+package com.learnora.backend.dto;
+
+import java.util.List;
+
+/**
+ * Winning plan of one repository query method, as reported by explain(). {@code error} is set
+ * instead of the plan when the query could not be explained.
+ */
+public class QueryPlanCheck {
+    private String repository;
+    private String method;
+    private String collection;
+    private String filter;
+    private List<String> stages;
+    private List<String> indexes;
+    private boolean collectionScan;
+    private String error;
+
+    public QueryPlanCheck() {}
+
+    public QueryPlanCheck(String repository, String method, String collection, String filter) {
+        this.repository = repository;
+        this.method = method;
+        this.collection = collection;
+        this.filter = filter;
+    }
+
+    public String getRepository() {
+        return repository;
+    }
+
+    public void setRepository(String repository) {
+        this.repository = repository;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public String getFilter() {
+        return filter;
+    }
+
+    public void setFilter(String filter) {
+        this.filter = filter;
+    }
+
+    public List<String> getStages() {
+        return stages;
+    }
+
+    public void setStages(List<String> stages) {
+        this.stages = stages;
+    }
+
+    public List<String> getIndexes() {
+        return indexes;
+    }
+
+    public void setIndexes(List<String> indexes) {
+        this.indexes = indexes;
+    }
+
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+
+    public void setCollectionScan(boolean collectionScan) {
+        this.collectionScan = collectionScan;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public String toString() {
+        return repository + "." + method + " on " + collection + " " + filter
+            + (error != null ? " failed: " + error : " -> " + stages + " " + indexes);
+    }
+}
@@ -0,0 +1,101 @@
+package com.learnora.backend.filter;
+
+import com.learnora.backend.repository.ReactiveUserRepository;
+import com.learnora.backend.service.CustomUserDetailsService;
+import com.learnora.backend.service.PrincipalCache;
+import com.learnora.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bearer token authentication for the "reactive" profile, the WebFlux counterpart of
+ * {@link JwtRequestFilter}: principals come from the shared {@link PrincipalCache}, and on a
+ * miss the token is verified and the user loaded with the reactive driver.
+ */
+@Component
+@Profile("reactive")
+public class JwtReactiveAuthenticationManager implements ReactiveAuthenticationManager {
+    private static final Logger logger = LoggerFactory.getLogger(JwtReactiveAuthenticationManager.class);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Reads the bearer token of a request as an unauthenticated token for {@link #authenticate}.
+     * Requests without one stay anonymous and are turned away by the authorization rules.
+     */
+    public static Mono<Authentication> bearerToken(ServerWebExchange exchange) {
+        String authorizationHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return Mono.empty();
+        }
+        String jwt = authorizationHeader.substring(7);
+        return Mono.just(UsernamePasswordAuthenticationToken.unauthenticated(jwt, jwt));
+    }
+
+    @Override
+    public Mono<Authentication> authenticate(Authentication authentication) {
+        String jwt = (String) authentication.getCredentials();
+        UserDetails cached = principalCache.get(jwt);
+        if (cached != null) {
+            return Mono.just(authenticated(cached));
+        }
+
+        Claims claims;
+        Timer.Sample validation = Timer.start(meterRegistry);
+        try {
+            claims = jwtUtil.parseClaims(jwt);
+            validation.stop(validationTimer("valid"));
+        } catch (Exception e) {
+            validation.stop(validationTimer("invalid"));
+            // Expired and malformed tokens are routine; they are counted by learnora.jwt.validation
+            logger.debug("JWT validation failed: {}", e.getMessage());
+            return Mono.error(new BadCredentialsException("Invalid or expired token", e));
+        }
+
+        return userRepository.findByEmail(claims.getSubject())
+            .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found with email: " + claims.getSubject())))
+            .map(userDetailsService::toUserDetails)
+            .doOnNext(userDetails -> principalCache.put(jwt, userDetails, claims.getExpiration()))
+            .map(this::authenticated);
+    }
+
+    private Authentication authenticated(UserDetails userDetails) {
+        return UsernamePasswordAuthenticationToken.authenticated(userDetails, null, userDetails.getAuthorities());
+    }
+
+    // Same meter as JwtRequestFilter, so the dashboards cover both stacks
+    private Timer validationTimer(String outcome) {
+        return Timer.builder("learnora.jwt.validation")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,8 +1,13 @@
 package com.learnora.backend.filter;
 
 import com.learnora.backend.service.CustomUserDetailsService;
+import com.learnora.backend.service.PrincipalCache;
 import com.learnora.backend.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -19,6 +24,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 
 @Component
+@Profile("!reactive")
 public class JwtRequestFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtRequestFilter.class);
 
@@ -28,9 +34,23 @@ public class JwtRequestFilter extends OncePerRequestFilter {
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
         String path = request.getRequestURI();
+        // Media is loaded by <img> tags, which cannot send the Authorization header
+        if ("GET".equals(request.getMethod()) && path.startsWith("/api/media/")) {
+            return true;
+        }
+        // Health checks and Prometheus scrapes come without a user token
+        if (path.equals("/actuator/health") || path.equals("/actuator/prometheus")) {
+            return true;
+        }
         return path.startsWith("/api/auth/signin") || path.startsWith("/api/auth/signup") || path.startsWith("/api/auth/google");
     }
 
@@ -39,55 +59,57 @@ public class JwtRequestFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         final String authorizationHeader = request.getHeader("Authorization");
-        logger.debug("Processing request: {} with Authorization header: {}", request.getRequestURI(), authorizationHeader);
-
-        String email = null;
-        String jwt = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                email = jwtUtil.getEmailFromToken(jwt);
-                logger.debug("Extracted email from token: {}", email);
-            } catch (Exception e) {
-                logger.error("JWT Token validation failed: {}", e.getMessage());
-                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                response.getWriter().write("Invalid or expired token");
-                return;
-            }
-        } else {
-            logger.debug("No valid Authorization header found");
+
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            logger.debug("No bearer token on {}", request.getRequestURI());
             response.setStatus(HttpServletResponse.SC_FORBIDDEN);
             response.getWriter().write("Missing or invalid Authorization header");
             return;
         }
 
-        if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(email);
-                logger.debug("Loaded user details for {}: {}", email, userDetails.getAuthorities());
-
-                if (jwtUtil.validateToken(jwt)) {
-                    logger.debug("Token is valid, setting authentication");
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    logger.debug("Authentication set in SecurityContext");
-                } else {
-                    logger.debug("Token validation failed");
+        String jwt = authorizationHeader.substring(7);
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserDetails userDetails = principalCache.get(jwt);
+            if (userDetails == null) {
+                Claims claims;
+                Timer.Sample validation = Timer.start(meterRegistry);
+                try {
+                    claims = jwtUtil.parseClaims(jwt);
+                    validation.stop(validationTimer("valid"));
+                } catch (Exception e) {
+                    validation.stop(validationTimer("invalid"));
+                    // Expired and malformed tokens are routine; they are counted by learnora.jwt.validation
+                    logger.debug("JWT validation failed on {}: {}", request.getRequestURI(), e.getMessage());
                     response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                    response.getWriter().write("Invalid token");
+                    response.getWriter().write("Invalid or expired token");
                     return;
                 }
-            } catch (Exception e) {
-                logger.error("Error loading user details: {}", e.getMessage());
-                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
-                response.getWriter().write("Error loading user details");
-                return;
+
+                try {
+                    userDetails = this.userDetailsService.loadUserByUsername(claims.getSubject());
+                } catch (Exception e) {
+                    logger.error("Error loading user details: {}", e.getMessage());
+                    response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                    response.getWriter().write("Error loading user details");
+                    return;
+                }
+                principalCache.put(jwt, userDetails, claims.getExpiration());
             }
+
+            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
         }
 
         chain.doFilter(request, response);
     }
+
+    // Signature and expiry checks only; tokens answered from the principal cache are not timed
+    private Timer validationTimer(String outcome) {
+        return Timer.builder("learnora.jwt.validation")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
\ No newline at end of file
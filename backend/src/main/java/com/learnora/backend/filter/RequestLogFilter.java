@@ -0,0 +1,80 @@
+package com.learnora.backend.filter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tags every log line of a request with a request id and writes one summary line for a sample
+ * of requests instead of logging each one. Failed (5xx) and slow requests are always logged.
+ */
+@Component
+@Profile("!reactive")
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLogFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestLogFilter.class);
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    private static final String REQUEST_ID_KEY = "requestId";
+    private static final int MAX_REQUEST_ID_LENGTH = 64;
+
+    private final double sampleRate;
+    private final long slowRequestMillis;
+
+    public RequestLogFilter(@Value("${learnora.logging.request-sample-rate:0.01}") double sampleRate,
+                            @Value("${learnora.logging.slow-request-ms:1000}") long slowRequestMillis) {
+        this.sampleRate = sampleRate;
+        this.slowRequestMillis = slowRequestMillis;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || requestId.isEmpty() || requestId.length() > MAX_REQUEST_ID_LENGTH) {
+            requestId = UUID.randomUUID().toString();
+        }
+        MDC.put(REQUEST_ID_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Streams (e.g. notifications) complete asynchronously; their duration says nothing
+            if (!request.isAsyncStarted()) {
+                logCompleted(request, response.getStatus(), (System.nanoTime() - start) / 1_000_000);
+            }
+            MDC.remove(REQUEST_ID_KEY);
+        }
+    }
+
+    private void logCompleted(HttpServletRequest request, int status, long durationMillis) {
+        if (status >= 500 || durationMillis >= slowRequestMillis) {
+            logger.warn("{} {} -> {} in {} ms", request.getMethod(), route(request), status, durationMillis);
+        } else if (logger.isInfoEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.info("{} {} -> {} in {} ms (sampled)", request.getMethod(), route(request), status, durationMillis);
+        }
+    }
+
+    // The route template keeps ids out of the message; requests no handler matched keep their path
+    private static Object route(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern : request.getRequestURI();
+    }
+}
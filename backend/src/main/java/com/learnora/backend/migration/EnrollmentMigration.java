@@ -0,0 +1,75 @@
+package com.learnora.backend.migration;
+
+import com.learnora.backend.model.LearningPlanModel;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One-shot backfill for enrollments made before copies recorded their source plan: sets each
+ * shared plan's enrollmentCount from enrolledUsers and links every enrolled user's copy (found
+ * by title, as the old duplicate check did) through sourcePlanId. Enable with
+ * {@code learnora.plans.backfill-enrollments=true}; copies that are already linked are skipped.
+ * Shared plans stored without a createdAt get the time in their id, so they can be paged.
+ */
+@Component
+@ConditionalOnProperty(name = "learnora.plans.backfill-enrollments", havingValue = "true")
+public class EnrollmentMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(EnrollmentMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query sharedPlans = new Query(Criteria.where("shared").is(true));
+        sharedPlans.fields().include("title").include("enrolledUsers").include("createdAt");
+
+        int plans = 0;
+        int linked = 0;
+        try (Stream<LearningPlanModel> stream = mongoTemplate.stream(sharedPlans, LearningPlanModel.class)) {
+            for (LearningPlanModel plan : (Iterable<LearningPlanModel>) stream::iterator) {
+                // Counted from the stored array in the update itself, not the copy read above, so
+                // an enrollment made since the read is not overwritten
+                mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(plan.getId())),
+                        AggregationUpdate.update().set("enrollmentCount").toValue(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("enrolledUsers").then(List.of()))),
+                        LearningPlanModel.class);
+                if (plan.getCreatedAt() == null) {
+                    mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(plan.getId()).and("createdAt").is(null)),
+                            Update.update("createdAt", new ObjectId(plan.getId()).getDate()), LearningPlanModel.class);
+                }
+                for (String userEmail : plan.getEnrolledUsers()) {
+                    Query copy = new Query(Criteria.where("userEmail").is(userEmail)
+                            .and("title").is(plan.getTitle())
+                            .and("shared").is(false)
+                            .and("sourcePlanId").exists(false));
+                    try {
+                        linked += (int) mongoTemplate.updateFirst(copy, Update.update("sourcePlanId", plan.getId()),
+                                LearningPlanModel.class).getModifiedCount();
+                    } catch (DuplicateKeyException e) {
+                        // The user already has a linked copy of this plan
+                    }
+                }
+                plans++;
+            }
+        }
+        logger.info("Enrollment backfill finished: {} shared plans, {} copies linked", plans, linked);
+    }
+}
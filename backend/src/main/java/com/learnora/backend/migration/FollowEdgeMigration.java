@@ -0,0 +1,155 @@
+package com.learnora.backend.migration;
+
+import com.learnora.backend.model.FollowModel;
+import com.learnora.backend.model.UserModel;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * One-shot migration from the followers/following arrays on users to the follows collection.
+ * Edges from both arrays are upserted (so an edge recorded on only one side is kept), the
+ * follower/following counters are rebuilt from the edges and the arrays are removed. Enable
+ * with {@code learnora.users.migrate-follows=true}; every step is idempotent. A follow made
+ * between the count of a user's edges and the write of that count may need another run.
+ */
+@Component
+@ConditionalOnProperty(name = "learnora.users.migrate-follows", havingValue = "true")
+public class FollowEdgeMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(FollowEdgeMigration.class);
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // The upserts below rely on the unique edge index, which is otherwise created in the background
+        mongoTemplate.indexOps(FollowModel.class).ensureIndex(new Index()
+                .on("followerId", Sort.Direction.ASC)
+                .on("followeeId", Sort.Direction.ASC)
+                .named("follower_followee")
+                .unique());
+
+        String userCollection = mongoTemplate.getCollectionName(UserModel.class);
+        Query withArrays = new Query(new Criteria().orOperator(
+                Criteria.where("followers").exists(true),
+                Criteria.where("following").exists(true)));
+        withArrays.fields().include("followers").include("following");
+
+        Date migratedAt = new Date();
+        EdgeWriter edges = new EdgeWriter(migratedAt);
+        try (Stream<Document> users = mongoTemplate.stream(withArrays, Document.class, userCollection)) {
+            for (Document user : (Iterable<Document>) users::iterator) {
+                String userId = user.getObjectId("_id").toHexString();
+                for (String followeeId : user.getList("following", String.class, List.of())) {
+                    edges.add(userId, followeeId);
+                }
+                for (String followerId : user.getList("followers", String.class, List.of())) {
+                    edges.add(followerId, userId);
+                }
+            }
+        }
+        edges.flush();
+
+        rebuildCounters("followerId", "followingCount");
+        rebuildCounters("followeeId", "followerCount");
+        mongoTemplate.updateMulti(withArrays, new Update().unset("followers").unset("following"), userCollection);
+        logger.info("Follow migration finished: {} edges upserted", edges.written);
+    }
+
+    // Sets the counter of every user with edges on that side and clears it only for users with
+    // none. Users are never zeroed wholesale first, so follows made while this runs keep their $inc.
+    private void rebuildCounters(String side, String counter) {
+        Set<String> withEdges = new HashSet<>();
+        Aggregation counts = Aggregation.newAggregation(Aggregation.group(side).count().as("total"));
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserModel.class);
+        int pending = 0;
+        try (Stream<Document> totals = mongoTemplate.aggregateStream(counts, FollowModel.class, Document.class)) {
+            for (Document total : (Iterable<Document>) totals::iterator) {
+                withEdges.add(total.getString("_id"));
+                bulk.updateOne(new Query(Criteria.where("_id").is(total.getString("_id"))),
+                        Update.update(counter, ((Number) total.get("total")).longValue()));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserModel.class);
+                    pending = 0;
+                }
+            }
+        }
+
+        // Only if the counter still holds the value read here, so a concurrent $inc wins
+        Query nonZero = new Query(Criteria.where(counter).ne(0));
+        nonZero.fields().include(counter);
+        try (Stream<Document> users = mongoTemplate.stream(nonZero, Document.class, mongoTemplate.getCollectionName(UserModel.class))) {
+            for (Document user : (Iterable<Document>) users::iterator) {
+                String userId = user.getObjectId("_id").toHexString();
+                if (withEdges.contains(userId)
+                        || mongoTemplate.exists(new Query(Criteria.where(side).is(userId)), FollowModel.class)) {
+                    continue;
+                }
+                bulk.updateOne(new Query(Criteria.where("_id").is(userId).and(counter).is(user.get(counter))),
+                        Update.update(counter, 0L));
+                if (++pending == BATCH_SIZE) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserModel.class);
+                    pending = 0;
+                }
+            }
+        }
+        if (pending > 0) {
+            bulk.execute();
+        }
+        mongoTemplate.updateMulti(new Query(Criteria.where(counter).exists(false)), Update.update(counter, 0L), UserModel.class);
+    }
+
+    private class EdgeWriter {
+        private final Date createdAt;
+        private BulkOperations bulk;
+        private int pending;
+        private long written;
+
+        EdgeWriter(Date createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        void add(String followerId, String followeeId) {
+            if (bulk == null) {
+                bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, FollowModel.class);
+            }
+            bulk.upsert(new Query(Criteria.where("followerId").is(followerId).and("followeeId").is(followeeId)),
+                    new Update().setOnInsert("createdAt", createdAt));
+            if (++pending == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (pending > 0) {
+                bulk.execute();
+                written += pending;
+            }
+            bulk = null;
+            pending = 0;
+        }
+    }
+}
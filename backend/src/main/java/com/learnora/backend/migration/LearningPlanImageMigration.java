@@ -0,0 +1,60 @@
+package com.learnora.backend.migration;
+
+import com.learnora.backend.model.LearningPlanModel;
+import com.learnora.backend.service.MediaService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.stream.Stream;
+
+/**
+ * One-shot migration that moves base64 cover images embedded in learning plans into the
+ * media store and replaces them with a media URL. Enable with
+ * {@code learnora.media.migrate-images=true}; documents already migrated are skipped, so it is
+ * safe to run more than once.
+ */
+@Component
+@ConditionalOnProperty(name = "learnora.media.migrate-images", havingValue = "true")
+public class LearningPlanImageMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(LearningPlanImageMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MediaService mediaService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query embeddedImages = new Query(Criteria.where("imageUrl").regex("^data:"));
+        embeddedImages.fields().include("imageUrl");
+
+        int migrated = 0;
+        int failed = 0;
+        try (Stream<LearningPlanModel> plans = mongoTemplate.stream(embeddedImages, LearningPlanModel.class)) {
+            for (LearningPlanModel plan : (Iterable<LearningPlanModel>) plans::iterator) {
+                try {
+                    String mediaUrl = mediaService.storeDataUrl(plan.getImageUrl());
+                    mongoTemplate.updateFirst(
+                            new Query(Criteria.where("_id").is(plan.getId())),
+                            Update.update("imageUrl", mediaUrl),
+                            LearningPlanModel.class);
+                    migrated++;
+                } catch (Exception e) {
+                    logger.error("Failed to migrate image of learning plan {}: {}", plan.getId(), e.getMessage());
+                    failed++;
+                }
+            }
+        }
+        logger.info("Learning plan image migration finished: {} migrated, {} failed", migrated, failed);
+    }
+}
@@ -0,0 +1,147 @@
+package com.learnora.backend.migration;
+
+import com.learnora.backend.model.Post;
+import com.learnora.backend.model.PostCommentModel;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * One-shot migration that moves comments embedded in posts into the post_comments collection,
+ * adds them to the post's comment count and removes the embedded array. Enable with
+ * {@code learnora.posts.migrate-comments=true}. Comments keep their ids (comments without a valid
+ * one get an id derived from the post and their position) and are upserted, so a post whose
+ * migration failed can be retried by running it again. Comments without a creation time get the
+ * post's, and posts and comments stored earlier without one are backfilled the same way (a post
+ * falls back to the time in its id), as the feed and comment cursors page on them.
+ */
+@Component
+@ConditionalOnProperty(name = "learnora.posts.migrate-comments", havingValue = "true")
+public class PostCommentMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(PostCommentMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query embeddedComments = new Query(Criteria.where("comments").exists(true));
+        embeddedComments.fields().include("comments").include("created");
+
+        String postCollection = mongoTemplate.getCollectionName(Post.class);
+        String commentCollection = mongoTemplate.getCollectionName(PostCommentModel.class);
+        int migratedPosts = 0;
+        int migratedComments = 0;
+        try (Stream<Document> posts = mongoTemplate.stream(embeddedComments, Document.class, postCollection)) {
+            for (Document post : (Iterable<Document>) posts::iterator) {
+                Object postId = post.get("_id");
+                Date postCreated = postCreated(post);
+                List<Document> comments = post.getList("comments", Document.class, List.of());
+                try {
+                    for (int i = 0; i < comments.size(); i++) {
+                        mongoTemplate.save(toPostComment(comments.get(i), postId.toString(), i, postCreated), commentCollection);
+                    }
+                    // $inc keeps comments added since the switch to post_comments. The count and
+                    // the unset are one update, so a retried post is never counted twice.
+                    mongoTemplate.updateFirst(
+                            new Query(Criteria.where("_id").is(postId).and("comments").exists(true)),
+                            new Update().inc("commentCount", comments.size()).unset("comments"),
+                            postCollection);
+                    migratedPosts++;
+                    migratedComments += comments.size();
+                } catch (Exception e) {
+                    logger.error("Failed to migrate comments of post {}: {}", postId, e.getMessage());
+                }
+            }
+        }
+        logger.info("Post comment migration finished: {} comments from {} posts", migratedComments, migratedPosts);
+        backfillCreationTimes(postCollection, commentCollection);
+    }
+
+    private void backfillCreationTimes(String postCollection, String commentCollection) {
+        Query postsWithout = new Query(Criteria.where("created").is(null));
+        postsWithout.fields().include("_id");
+        int posts = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(postsWithout, Document.class, postCollection)) {
+            for (Document post : (Iterable<Document>) stream::iterator) {
+                posts += (int) mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(post.get("_id")).and("created").is(null)),
+                        Update.update("created", postCreated(post)), postCollection).getModifiedCount();
+            }
+        }
+
+        Query commentsWithout = new Query(Criteria.where("createdAt").is(null));
+        commentsWithout.fields().include("postId");
+        int comments = 0;
+        try (Stream<Document> stream = mongoTemplate.stream(commentsWithout, Document.class, commentCollection)) {
+            for (Document comment : (Iterable<Document>) stream::iterator) {
+                String postId = String.valueOf(comment.get("postId"));
+                Query postQuery = new Query(Criteria.where("_id").is(ObjectId.isValid(postId) ? new ObjectId(postId) : postId));
+                postQuery.fields().include("created");
+                Document post = mongoTemplate.findOne(postQuery, Document.class, postCollection);
+                Date createdAt = post != null ? postCreated(post) : new Date();
+                comments += (int) mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(comment.get("_id")).and("createdAt").is(null)),
+                        Update.update("createdAt", createdAt), commentCollection).getModifiedCount();
+            }
+        }
+        if (posts > 0 || comments > 0) {
+            logger.info("Backfilled creation times of {} posts and {} comments", posts, comments);
+        }
+    }
+
+    // Creation time of a post, or the time in its id if it has none
+    private static Date postCreated(Document post) {
+        Date created = post.getDate("created");
+        if (created != null) {
+            return created;
+        }
+        Object id = post.get("_id");
+        return id instanceof ObjectId ? ((ObjectId) id).getDate() : new Date();
+    }
+
+    private Document toPostComment(Document embedded, String postId, int index, Date postCreated) {
+        Object id = embedded.containsKey("_id") ? embedded.get("_id") : embedded.get("id");
+        if (id == null || (id instanceof String && !ObjectId.isValid((String) id))) {
+            id = derivedId(postId, index);
+        } else if (id instanceof String) {
+            id = new ObjectId((String) id);
+        }
+        return new Document("_id", id)
+                .append("postId", postId)
+                .append("userId", embedded.get("userId"))
+                .append("username", embedded.get("username"))
+                .append("text", embedded.get("text"))
+                .append("createdAt", embedded.get("createdAt") != null ? embedded.get("createdAt") : postCreated)
+                .append("_class", PostCommentModel.class.getName());
+    }
+
+    // Same id on every run for the same comment, so retries upsert instead of duplicating
+    private static ObjectId derivedId(String postId, int index) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest((postId + ":" + index).getBytes(StandardCharsets.UTF_8));
+            return new ObjectId(Arrays.copyOf(hash, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
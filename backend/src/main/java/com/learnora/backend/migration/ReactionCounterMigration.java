@@ -0,0 +1,25 @@
+package com.learnora.backend.migration;
+
+import com.learnora.backend.service.ReactionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-shot build of the reaction counters from the existing reactions, needed once when the
+ * counters are introduced. Enable with {@code learnora.reactions.reconcile-on-startup=true}.
+ */
+@Component
+@ConditionalOnProperty(name = "learnora.reactions.reconcile-on-startup", havingValue = "true")
+public class ReactionCounterMigration implements ApplicationRunner {
+
+    @Autowired
+    private ReactionService reactionService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        reactionService.reconcileCounters();
+    }
+}
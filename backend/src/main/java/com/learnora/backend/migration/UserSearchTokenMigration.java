@@ -0,0 +1,50 @@
+package com.learnora.backend.migration;
+
+import com.learnora.backend.model.UserModel;
+import com.learnora.backend.util.NameNormalizer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.stream.Stream;
+
+/**
+ * One-shot backfill of {@code searchTokens} for users created before indexed search. Enable with
+ * {@code learnora.users.backfill-search-tokens=true}; users that already have tokens are skipped.
+ */
+@Component
+@ConditionalOnProperty(name = "learnora.users.backfill-search-tokens", havingValue = "true")
+public class UserSearchTokenMigration implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(UserSearchTokenMigration.class);
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Query missingTokens = new Query(new Criteria().orOperator(
+                Criteria.where("searchTokens").exists(false),
+                Criteria.where("searchTokens").size(0)));
+        missingTokens.fields().include("firstName", "lastName");
+
+        int updated = 0;
+        try (Stream<UserModel> users = mongoTemplate.stream(missingTokens, UserModel.class)) {
+            for (UserModel user : (Iterable<UserModel>) users::iterator) {
+                mongoTemplate.updateFirst(
+                        new Query(Criteria.where("_id").is(user.getId())),
+                        Update.update("searchTokens", NameNormalizer.searchTokens(user.getFirstName(), user.getLastName())),
+                        UserModel.class);
+                updated++;
+            }
+        }
+        logger.info("User search token backfill finished: {} users updated", updated);
+    }
+}
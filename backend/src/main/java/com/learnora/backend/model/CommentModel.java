@@ -1,6 +1,9 @@
 package com.learnora.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
@@ -8,6 +11,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Document(collection = "comments")
+@CompoundIndex(name = "postId_parentId_createdAt", def = "{'postId': 1, 'parentId': 1, 'createdAt': -1}")
 public class CommentModel {
 
     @Id
@@ -20,6 +24,9 @@ public class CommentModel {
     private String parentId; // ID of the parent comment if this is a reply
     private List<CommentModel> replies; // List of replies to this comment
     private boolean hidden; // New field to track hidden status
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long replyCount; // Number of direct replies, only set on paginated listings
 
     public CommentModel() {
         this.createdAt = LocalDateTime.now();
@@ -108,4 +115,12 @@ public class CommentModel {
     public void setHidden(boolean hidden) {
         this.hidden = hidden;
     }
+
+    public Long getReplyCount() {
+        return replyCount;
+    }
+
+    public void setReplyCount(Long replyCount) {
+        this.replyCount = replyCount;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,67 @@
+package com.learnora.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+/**
+ * One follow relationship: {@code followerId} follows {@code followeeId}. Stored as its own
+ * document so popular users' profiles do not grow with their audience; the totals are kept as
+ * counters on the user.
+ */
+@Document(collection = "follows")
+@CompoundIndexes({
+    @CompoundIndex(name = "follower_followee", def = "{'followerId': 1, 'followeeId': 1}", unique = true),
+    // Following lists page on follower_created, follower lists on followee_created
+    @CompoundIndex(name = "follower_created", def = "{'followerId': 1, 'createdAt': 1, '_id': 1}"),
+    @CompoundIndex(name = "followee_created", def = "{'followeeId': 1, 'createdAt': 1, '_id': 1}")
+})
+public class FollowModel {
+    @Id
+    private String id;
+    private String followerId;
+    private String followeeId;
+    private Date createdAt;
+
+    public FollowModel() {}
+
+    public FollowModel(String followerId, String followeeId) {
+        this.followerId = followerId;
+        this.followeeId = followeeId;
+        this.createdAt = new Date();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFollowerId() {
+        return followerId;
+    }
+
+    public void setFollowerId(String followerId) {
+        this.followerId = followerId;
+    }
+
+    public String getFolloweeId() {
+        return followeeId;
+    }
+
+    public void setFolloweeId(String followeeId) {
+        this.followeeId = followeeId;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,6 +1,8 @@
 package com.learnora.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -9,6 +11,14 @@ import java.util.Date;
 import java.util.List;
 
 @Document(collection = "learning_plans")
+@CompoundIndexes({
+    @CompoundIndex(name = "shared_createdAt", def = "{'shared': 1, 'createdAt': -1, '_id': -1}"),
+    // A user's own plans; the partial userEmail_sourcePlanId index only holds enrolled copies
+    @CompoundIndex(name = "userEmail_createdAt", def = "{'userEmail': 1, 'createdAt': -1}"),
+    // One enrolled copy per user and shared plan; plans the user authored have no sourcePlanId
+    @CompoundIndex(name = "userEmail_sourcePlanId", def = "{'userEmail': 1, 'sourcePlanId': 1}", unique = true,
+        partialFilter = "{'sourcePlanId': {'$exists': true}}")
+})
 public class LearningPlanModel {
 
     @Id
@@ -27,6 +37,8 @@ public class LearningPlanModel {
     private Date createdAt;
     @Field("enrolledUsers")
     private List<String> enrolledUsers;
+    private int enrollmentCount; // Kept in step with enrolledUsers by $addToSet/$inc
+    private String sourcePlanId; // Shared plan this copy was enrolled from
 
     public LearningPlanModel() {
         this.topics = new ArrayList<>();
@@ -46,6 +58,22 @@ public class LearningPlanModel {
         this.imageUrl = imageUrl;
     }
 
+    public int getEnrollmentCount() {
+        return enrollmentCount;
+    }
+
+    public void setEnrollmentCount(int enrollmentCount) {
+        this.enrollmentCount = enrollmentCount;
+    }
+
+    public String getSourcePlanId() {
+        return sourcePlanId;
+    }
+
+    public void setSourcePlanId(String sourcePlanId) {
+        this.sourcePlanId = sourcePlanId;
+    }
+
     public static class Topic {
         private String title;
         private String resources;
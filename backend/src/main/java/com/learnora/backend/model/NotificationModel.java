@@ -1,10 +1,18 @@
 package com.learnora.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "notifications")
+@CompoundIndexes({
+    // Full history pages
+    @CompoundIndex(name = "userId_createdAt", def = "{'userId': 1, 'createdAt': -1, '_id': -1}"),
+    // Unread pages and the unread count (userId+read prefix)
+    @CompoundIndex(name = "userId_read_createdAt", def = "{'userId': 1, 'read': 1, 'createdAt': -1, '_id': -1}")
+})
 public class NotificationModel {
     @Id
     private String id;
@@ -15,6 +23,7 @@ public class NotificationModel {
     private String courseId;  // ID of the course for navigation
     private boolean read;
     private LocalDateTime createdAt;
+    private LocalDateTime readAt; // drives the TTL index on read notifications
 
     public NotificationModel() {
         this.createdAt = LocalDateTime.now();
@@ -93,4 +102,12 @@ public class NotificationModel {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
+
+    public LocalDateTime getReadAt() {
+        return readAt;
+    }
+
+    public void setReadAt(LocalDateTime readAt) {
+        this.readAt = readAt;
+    }
 }
\ No newline at end of file
@@ -1,12 +1,17 @@
 package com.learnora.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.Date;
 import java.util.List;
-import java.util.ArrayList;
 
 @Document(collection = "posts")
+@CompoundIndexes({
+    @CompoundIndex(name = "created", def = "{'created': -1, '_id': -1}"),
+    @CompoundIndex(name = "userId_created", def = "{'userId': 1, 'created': -1, '_id': -1}")
+})
 public class Post {
     @Id
     private String id;
@@ -17,13 +22,12 @@ public class Post {
     private String userPhotoURL;
     private List<String> video;
     private int likes;
-    private List<CommentModel> comments;
+    private int commentCount; // comments live in post_comments
     private Date created;
 
     public Post() {
         this.created = new Date();
         this.likes = 0;
-        this.comments = new ArrayList<>();
     }
 
     // Getters and Setters
@@ -91,12 +95,12 @@ public class Post {
         this.likes = likes;
     }
 
-    public List<CommentModel> getComments() {
-        return comments;
+    public int getCommentCount() {
+        return commentCount;
     }
 
-    public void setComments(List<CommentModel> comments) {
-        this.comments = comments;
+    public void setCommentCount(int commentCount) {
+        this.commentCount = commentCount;
     }
 
     public Date getCreated() {
@@ -0,0 +1,76 @@
+package com.learnora.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Comment on a community post. Stored in its own collection keyed by post rather than embedded
+ * in the post, so adding a comment is a single insert and post documents stay small.
+ */
+@Document(collection = "post_comments")
+@CompoundIndex(name = "postId_createdAt", def = "{'postId': 1, 'createdAt': -1, '_id': -1}")
+public class PostCommentModel {
+
+    @Id
+    private String id;
+    private String postId;
+    private String userId;
+    private String username;
+    private String text;
+    private LocalDateTime createdAt;
+
+    public PostCommentModel() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getPostId() {
+        return postId;
+    }
+
+    public void setPostId(String postId) {
+        this.postId = postId;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
@@ -1,11 +1,14 @@
 package com.learnora.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.util.List;
 import java.util.Date;
 
 @Document(collection = "progress_templates")
+// Serves lookups by user alone as well as by user and course
+@CompoundIndex(name = "userId_courseId", def = "{'userId': 1, 'courseId': 1}")
 public class ProgressTemplate {
     @Id
     private String id;
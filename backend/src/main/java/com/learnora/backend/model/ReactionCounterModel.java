@@ -0,0 +1,70 @@
+package com.learnora.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.Date;
+
+@Document(collection = "reaction_counters")
+public class ReactionCounterModel {
+    @Id
+    private String id; // contentType + ":" + contentId
+    private String contentId;
+    private String contentType;
+    private long likes;
+    private long dislikes;
+    private Date reconciledAt; // Last time the repair job recomputed this counter or a reaction changed it
+
+    public ReactionCounterModel() {}
+
+    public static String idFor(String contentId, String contentType) {
+        return contentType + ":" + contentId;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getContentId() {
+        return contentId;
+    }
+
+    public void setContentId(String contentId) {
+        this.contentId = contentId;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public long getLikes() {
+        return likes;
+    }
+
+    public void setLikes(long likes) {
+        this.likes = likes;
+    }
+
+    public long getDislikes() {
+        return dislikes;
+    }
+
+    public void setDislikes(long dislikes) {
+        this.dislikes = dislikes;
+    }
+
+    public Date getReconciledAt() {
+        return reconciledAt;
+    }
+
+    public void setReconciledAt(Date reconciledAt) {
+        this.reconciledAt = reconciledAt;
+    }
+}
@@ -1,10 +1,17 @@
 package com.learnora.backend.model;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 import java.time.LocalDateTime;
 
 @Document(collection = "reactions")
+@CompoundIndexes({
+    @CompoundIndex(name = "user_content", def = "{'userId': 1, 'contentId': 1, 'contentType': 1}", unique = true),
+    // Reactions of one item, optionally of one type
+    @CompoundIndex(name = "content_reactionType", def = "{'contentId': 1, 'contentType': 1, 'reactionType': 1}")
+})
 public class ReactionModel {
     @Id
     private String id;
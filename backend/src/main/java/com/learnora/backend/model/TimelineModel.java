@@ -0,0 +1,74 @@
+package com.learnora.backend.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Precomputed home timeline of one user: references to recent posts by the people they follow,
+ * newest first and capped in length. Filled when posts are created (fan-out on write).
+ */
+@Document(collection = "timelines")
+public class TimelineModel {
+    @Id
+    private String id; // id of the timeline owner
+    private List<Entry> entries = new ArrayList<>();
+
+    public TimelineModel() {}
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<Entry> entries) {
+        this.entries = entries;
+    }
+
+    public static class Entry {
+        private String postId;
+        private String authorId;
+        private Date created;
+
+        public Entry() {}
+
+        public Entry(String postId, String authorId, Date created) {
+            this.postId = postId;
+            this.authorId = authorId;
+            this.created = created;
+        }
+
+        public String getPostId() {
+            return postId;
+        }
+
+        public void setPostId(String postId) {
+            this.postId = postId;
+        }
+
+        public String getAuthorId() {
+            return authorId;
+        }
+
+        public void setAuthorId(String authorId) {
+            this.authorId = authorId;
+        }
+
+        public Date getCreated() {
+            return created;
+        }
+
+        public void setCreated(Date created) {
+            this.created = created;
+        }
+    }
+}
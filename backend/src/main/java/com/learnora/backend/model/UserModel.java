@@ -1,9 +1,12 @@
 package com.learnora.backend.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
 
 @Document(collection = "users")
@@ -13,12 +16,20 @@ public class UserModel {
     private String id;
     private String firstName;
     private String lastName;
+    @Indexed(unique = true)
     private String email;
     private String password;
     private String phone;
     private String photoURL;
-    private List<String> followers = new ArrayList<>();
-    private List<String> following = new ArrayList<>();
+    private long followerCount; // Maintained with $inc alongside the follows collection
+    private long followingCount;
+    @Indexed
+    @JsonIgnore
+    private List<String> searchTokens = new ArrayList<>(); // Normalized name tokens for prefix search
+    @JsonIgnore
+    private boolean fanOutOnRead; // Too many followers to push posts into their timelines
+    @JsonIgnore
+    private Date fanOutOnReadSince; // Posts from then on were not pushed; backfilled when the flag clears
 
     public UserModel() {}
 
@@ -85,19 +96,43 @@ public class UserModel {
         this.photoURL = photoURL;
     }
 
-    public List<String> getFollowers() {
-        return followers;
+    public long getFollowerCount() {
+        return followerCount;
     }
 
-    public void setFollowers(List<String> followers) {
-        this.followers = followers;
+    public void setFollowerCount(long followerCount) {
+        this.followerCount = followerCount;
     }
 
-    public List<String> getFollowing() {
-        return following;
+    public long getFollowingCount() {
+        return followingCount;
     }
 
-    public void setFollowing(List<String> following) {
-        this.following = following;
+    public void setFollowingCount(long followingCount) {
+        this.followingCount = followingCount;
+    }
+
+    public List<String> getSearchTokens() {
+        return searchTokens;
+    }
+
+    public void setSearchTokens(List<String> searchTokens) {
+        this.searchTokens = searchTokens;
+    }
+
+    public boolean isFanOutOnRead() {
+        return fanOutOnRead;
+    }
+
+    public void setFanOutOnRead(boolean fanOutOnRead) {
+        this.fanOutOnRead = fanOutOnRead;
+    }
+
+    public Date getFanOutOnReadSince() {
+        return fanOutOnReadSince;
+    }
+
+    public void setFanOutOnReadSince(Date fanOutOnReadSince) {
+        this.fanOutOnReadSince = fanOutOnReadSince;
     }
 }
\ No newline at end of file
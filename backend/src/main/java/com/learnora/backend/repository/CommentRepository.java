@@ -7,4 +7,5 @@ import java.util.List;
 
 public interface CommentRepository extends MongoRepository<CommentModel, String> {
     List<CommentModel> findByPostId(String postId);
+    List<CommentModel> findByPostIdAndParentId(String postId, String parentId);
 }
\ No newline at end of file
@@ -12,4 +12,5 @@ public interface LearningPlanRepository extends MongoRepository<LearningPlanMode
     List<LearningPlanModel> findByUserEmail(String userEmail);
     List<LearningPlanModel> findByShared(boolean shared);
     Optional<LearningPlanModel> findByIdAndUserEmail(String id, String userEmail);
+    Optional<LearningPlanModel> findByUserEmailAndSourcePlanId(String userEmail, String sourcePlanId);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.learnora.backend.repository;
+
+import com.learnora.backend.model.PostCommentModel;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PostCommentRepository extends MongoRepository<PostCommentModel, String> {
+    long deleteByPostId(String postId);
+}
@@ -0,0 +1,7 @@
+package com.learnora.backend.repository;
+
+import com.learnora.backend.model.ReactionCounterModel;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface ReactionCounterRepository extends MongoRepository<ReactionCounterModel, String> {
+}
@@ -0,0 +1,10 @@
+package com.learnora.backend.repository;
+
+import com.learnora.backend.model.CommentModel;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveCommentRepository extends ReactiveMongoRepository<CommentModel, String> {
+    Flux<CommentModel> findByPostId(String postId);
+    Flux<CommentModel> findByPostIdAndParentId(String postId, String parentId);
+}
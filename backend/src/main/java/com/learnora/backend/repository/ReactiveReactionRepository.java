@@ -0,0 +1,11 @@
+package com.learnora.backend.repository;
+
+import com.learnora.backend.model.ReactionModel;
+import org.springframework.data.mongodb.repository.Query;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveReactionRepository extends ReactiveMongoRepository<ReactionModel, String> {
+    @Query("{'userId': ?0, 'contentId': ?1, 'contentType': ?2}")
+    Mono<ReactionModel> findByUserAndContent(String userId, String contentId, String contentType);
+}
@@ -0,0 +1,9 @@
+package com.learnora.backend.repository;
+
+import com.learnora.backend.model.UserModel;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<UserModel, String> {
+    Mono<UserModel> findByEmail(String email);
+}
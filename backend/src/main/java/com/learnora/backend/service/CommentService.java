@@ -1,23 +1,42 @@
 package com.learnora.backend.service;
 
+import com.learnora.backend.dto.CursorPage;
+import com.learnora.backend.dto.PlanOwnerInfo;
 import com.learnora.backend.model.CommentModel;
 import com.learnora.backend.model.UserModel;
-import com.learnora.backend.model.LearningPlanModel;
 import com.learnora.backend.repository.CommentRepository;
 import com.learnora.backend.repository.UserRepository;
-import com.learnora.backend.repository.LearningPlanRepository;
+import com.learnora.backend.util.PageCursor;
+import com.learnora.backend.util.TaskScopes;
+import io.micrometer.core.annotation.Timed;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
+@Timed(value = "learnora.service", histogram = true)
 public class CommentService {
     private static final Logger logger = LoggerFactory.getLogger(CommentService.class);
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     private CommentRepository commentRepository;
@@ -29,90 +48,74 @@ public class CommentService {
     private NotificationService notificationService;
 
     @Autowired
-    private LearningPlanRepository learningPlanRepository;
+    private LearningPlanService learningPlanService;
 
-    public CommentModel createComment(CommentModel comment) throws Exception {
-        logger.info("Creating comment: postId={}, userId={}, username={}, parentId={}", 
-            comment.getPostId(), comment.getUserId(), comment.getUsername(), comment.getParentId());
+    @Autowired
+    private MongoTemplate mongoTemplate;
 
-        logger.info("Raw user ID from comment: {}", comment.getUserId());
-        logger.info("User ID type: {}", comment.getUserId() != null ? comment.getUserId().getClass().getName() : "null");
+    @Autowired
+    private TaskScopes taskScopes;
 
-        if (comment.getPostId() == null || comment.getPostId().isEmpty()) {
-            throw new Exception("Post ID is required");
-        }
-        if (comment.getUserId() == null || comment.getUserId().isEmpty()) {
-            logger.error("User ID validation failed - userId is null or empty");
-            throw new Exception("User ID is required");
-        }
-        if (comment.getUsername() == null || comment.getUsername().isEmpty()) {
-            throw new Exception("Username is required");
-        }
-        if (comment.getText() == null || comment.getText().isEmpty()) {
-            throw new Exception("Comment text is required");
-        }
+    public CommentModel createComment(CommentModel comment) throws Exception {
+        validateNewComment(comment);
 
+        logger.debug("Creating comment: postId={}, userId={}, parentId={}",
+            comment.getPostId(), comment.getUserId(), comment.getParentId());
         comment.setCreatedAt(java.time.LocalDateTime.now());
 
-        UserModel user = userRepository.findByEmail(comment.getUserId())
-            .orElseThrow(() -> new Exception("User not found"));
-        logger.info("Found user: email={}, name={}", user.getEmail(), user.getFirstName() + " " + user.getLastName());
+        boolean isReply = comment.getParentId() != null && !comment.getParentId().isEmpty();
+
+        // The user, plan and parent lookups do not depend on each other
+        Optional<UserModel> user;
+        Optional<PlanOwnerInfo> planInfo;
+        Optional<CommentModel> parentComment;
+        try (TaskScopes.Scope scope = taskScopes.open()) {
+            Supplier<Optional<UserModel>> userLookup = scope.fork(() -> userRepository.findByEmail(comment.getUserId()));
+            Supplier<Optional<PlanOwnerInfo>> planLookup = scope.fork(() -> learningPlanService.getPlanOwnerInfo(comment.getPostId()));
+            Supplier<Optional<CommentModel>> parentLookup = isReply
+                ? scope.fork(() -> commentRepository.findById(comment.getParentId()))
+                : Optional::empty;
+            scope.join();
+            user = userLookup.get();
+            planInfo = planLookup.get();
+            parentComment = parentLookup.get();
+        }
 
-        String expectedUsername = user.getFirstName() + " " + user.getLastName();
+        if (user.isEmpty()) {
+            throw new Exception("User not found");
+        }
+        String expectedUsername = user.get().getFirstName() + " " + user.get().getLastName();
         if (!comment.getUsername().equals(expectedUsername)) {
             throw new Exception("Username does not match user");
         }
-
-        if (comment.getParentId() != null && !comment.getParentId().isEmpty()) {
-            logger.info("This is a reply to comment: {}", comment.getParentId());
-            Optional<CommentModel> parentComment = commentRepository.findById(comment.getParentId());
-            if (!parentComment.isPresent()) {
-                throw new Exception("Parent comment not found");
-            }
-            logger.info("Found parent comment: id={}, userId={}", 
-                parentComment.get().getId(), parentComment.get().getUserId());
+        if (isReply && parentComment.isEmpty()) {
+            throw new Exception("Parent comment not found");
         }
+        PlanOwnerInfo plan = planInfo.orElseThrow(() -> new Exception("Learning plan not found"));
 
         CommentModel savedComment = commentRepository.save(comment);
-        logger.info("Comment saved successfully: id={}", savedComment.getId());
-
-        LearningPlanModel plan = learningPlanRepository.findById(comment.getPostId())
-            .orElseThrow(() -> new Exception("Learning plan not found"));
+        logger.debug("Comment saved: id={}", savedComment.getId());
 
         try {
-            if (comment.getParentId() != null && !comment.getParentId().isEmpty()) {
-                Optional<CommentModel> parentComment = commentRepository.findById(comment.getParentId());
-                if (parentComment.isPresent() && !parentComment.get().getUserId().equals(comment.getUserId())) {
-                    String message = String.format("%s replied to your comment", comment.getUsername());
-                    logger.info("Creating notification for user {}: {}", parentComment.get().getUserId(), message);
-                    
-                    notificationService.createNotification(
-                        parentComment.get().getUserId(),
-                        "COMMENT_REPLY",
-                        message,
-                        savedComment.getId(),
-                        comment.getPostId()
-                    );
-                    logger.info("Reply notification created successfully");
-                }
+            if (isReply && !parentComment.get().getUserId().equals(comment.getUserId())) {
+                String message = String.format("%s replied to your comment", comment.getUsername());
+                notificationService.createNotification(
+                    parentComment.get().getUserId(),
+                    "COMMENT_REPLY",
+                    message,
+                    savedComment.getId(),
+                    comment.getPostId()
+                );
             }
 
             if (!plan.getUserEmail().equals(comment.getUserId())) {
-                String message = String.format("%s commented on your course '%s': %s", 
-                    comment.getUsername(),
-                    plan.getTitle(),
-                    comment.getText().length() > 50 ? comment.getText().substring(0, 47) + "..." : comment.getText());
-                
-                logger.info("Creating notification for course owner {}: {}", plan.getUserEmail(), message);
-                
                 notificationService.createNotification(
                     plan.getUserEmail(),
                     "COURSE_COMMENT",
-                    message,
+                    courseCommentMessage(comment, plan),
                     savedComment.getId(),
                     plan.getId()
                 );
-                logger.info("Course owner notification created successfully");
             }
         } catch (Exception e) {
             logger.error("Failed to create notifications: {}", e.getMessage(), e);
@@ -121,12 +124,34 @@ public class CommentService {
         return savedComment;
     }
 
+    static void validateNewComment(CommentModel comment) throws Exception {
+        if (comment.getPostId() == null || comment.getPostId().isEmpty()) {
+            throw new Exception("Post ID is required");
+        }
+        if (comment.getUserId() == null || comment.getUserId().isEmpty()) {
+            throw new Exception("User ID is required");
+        }
+        if (comment.getUsername() == null || comment.getUsername().isEmpty()) {
+            throw new Exception("Username is required");
+        }
+        if (comment.getText() == null || comment.getText().isEmpty()) {
+            throw new Exception("Comment text is required");
+        }
+    }
+
+    static String courseCommentMessage(CommentModel comment, PlanOwnerInfo plan) {
+        return String.format("%s commented on your course '%s': %s",
+            comment.getUsername(),
+            plan.getTitle(),
+            comment.getText().length() > 50 ? comment.getText().substring(0, 47) + "..." : comment.getText());
+    }
+
     public List<CommentModel> getCommentsByPostId(String postId, String userEmail) throws Exception {
         if (postId == null || postId.isEmpty()) {
             throw new Exception("Post ID is required");
         }
 
-        LearningPlanModel plan = learningPlanRepository.findById(postId)
+        PlanOwnerInfo plan = learningPlanService.getPlanOwnerInfo(postId)
             .orElseThrow(() -> new Exception("Learning plan not found"));
 
         boolean isCourseOwner = plan.getUserEmail().equals(userEmail);
@@ -138,28 +163,119 @@ public class CommentService {
                 .filter(comment -> !comment.isHidden())
                 .toList();
         }
-        
-        List<CommentModel> parentComments = allComments.stream()
-            .filter(comment -> comment.getParentId() == null || comment.getParentId().isEmpty())
-            .toList();
 
-        for (CommentModel parent : parentComments) {
-            buildCommentTree(parent, allComments);
+        return buildCommentTree(allComments);
+    }
+
+    // Links every comment to its replies in a single pass over the thread and returns the
+    // top-level comments. Replies whose parent is missing (e.g. hidden) are dropped, as before.
+    static List<CommentModel> buildCommentTree(List<CommentModel> allComments) {
+        Map<String, List<CommentModel>> repliesByParent = new HashMap<>();
+        List<CommentModel> parentComments = new ArrayList<>();
+        for (CommentModel comment : allComments) {
+            if (comment.getParentId() == null || comment.getParentId().isEmpty()) {
+                parentComments.add(comment);
+            } else {
+                repliesByParent.computeIfAbsent(comment.getParentId(), id -> new ArrayList<>()).add(comment);
+            }
         }
 
+        for (CommentModel comment : allComments) {
+            comment.setReplies(repliesByParent.getOrDefault(comment.getId(), new ArrayList<>()));
+        }
         return parentComments;
     }
 
-    private void buildCommentTree(CommentModel comment, List<CommentModel> allComments) {
-        List<CommentModel> replies = allComments.stream()
-            .filter(c -> comment.getId().equals(c.getParentId()))
-            .toList();
-        
-        comment.setReplies(replies);
-        
-        for (CommentModel reply : replies) {
-            buildCommentTree(reply, allComments);
+    public CursorPage<CommentModel> getTopLevelComments(String postId, String userEmail, String cursor, int limit) throws Exception {
+        if (postId == null || postId.isEmpty()) {
+            throw new Exception("Post ID is required");
+        }
+
+        PlanOwnerInfo plan = learningPlanService.getPlanOwnerInfo(postId)
+            .orElseThrow(() -> new Exception("Learning plan not found"));
+        boolean isCourseOwner = plan.getUserEmail().equals(userEmail);
+
+        Criteria criteria = Criteria.where("postId").is(postId).and("parentId").in(null, "");
+        return pageComments(criteria, isCourseOwner, cursor, limit);
+    }
+
+    public CursorPage<CommentModel> getReplies(String commentId, String userEmail, String cursor, int limit) throws Exception {
+        CommentModel parent = commentRepository.findById(commentId)
+            .orElseThrow(() -> new Exception("Comment not found"));
+
+        PlanOwnerInfo plan = learningPlanService.getPlanOwnerInfo(parent.getPostId())
+            .orElseThrow(() -> new Exception("Learning plan not found"));
+        boolean isCourseOwner = plan.getUserEmail().equals(userEmail);
+
+        Criteria criteria = Criteria.where("postId").is(parent.getPostId()).and("parentId").is(commentId);
+        return pageComments(criteria, isCourseOwner, cursor, limit);
+    }
+
+    // Newest-first keyset page over the postId+parentId+createdAt index. Replies are not
+    // inlined; each comment carries its direct reply count so clients can expand on demand.
+    private CursorPage<CommentModel> pageComments(Criteria criteria, boolean includeHidden, String cursor, int limit) {
+        List<CommentModel> comments = mongoTemplate.find(pageQuery(criteria, includeHidden, cursor, limit), CommentModel.class);
+        Map<String, Long> replyCounts = new HashMap<>();
+        if (!comments.isEmpty()) {
+            for (Document result : mongoTemplate.aggregate(replyCountAggregation(comments, includeHidden), Document.class).getMappedResults()) {
+                replyCounts.put(result.getString("_id"), ((Number) result.get("count")).longValue());
+            }
         }
+        return toPage(comments, limit, replyCounts);
+    }
+
+    // Fetches one comment more than the page holds to tell whether there is a next page
+    static Query pageQuery(Criteria criteria, boolean includeHidden, String cursor, int limit) {
+        if (!includeHidden) {
+            criteria = criteria.and("hidden").is(false);
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor position = PageCursor.decode(cursor);
+            LocalDateTime createdAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(position.getTimestamp()), ZoneId.systemDefault());
+            criteria = criteria.orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lt(new ObjectId(position.getId())));
+        }
+
+        return new Query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+            .limit(pageSize(limit) + 1);
+    }
+
+    // Direct reply counts, grouped by parentId, for a non-empty list of comments of one post
+    static TypedAggregation<CommentModel> replyCountAggregation(List<CommentModel> comments, boolean includeHidden) {
+        List<String> ids = comments.stream().map(CommentModel::getId).toList();
+        Criteria criteria = Criteria.where("postId").is(comments.get(0).getPostId()).and("parentId").in(ids);
+        if (!includeHidden) {
+            criteria = criteria.and("hidden").is(false);
+        }
+
+        return Aggregation.newAggregation(CommentModel.class,
+            Aggregation.match(criteria),
+            Aggregation.group("parentId").count().as("count"));
+    }
+
+    static CursorPage<CommentModel> toPage(List<CommentModel> comments, int limit, Map<String, Long> replyCounts) {
+        int pageSize = pageSize(limit);
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            CommentModel last = comments.get(pageSize - 1);
+            nextCursor = new PageCursor(
+                last.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                last.getId()).encode();
+        }
+
+        for (CommentModel comment : comments) {
+            comment.setReplies(new ArrayList<>());
+            comment.setReplyCount(replyCounts.getOrDefault(comment.getId(), 0L));
+        }
+        return new CursorPage<>(comments, nextCursor);
+    }
+
+    private static int pageSize(int limit) {
+        return Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
     }
 
     public CommentModel updateComment(String id, CommentModel updates, String userEmail) throws Exception {
@@ -182,16 +298,14 @@ public class CommentService {
         CommentModel comment = commentRepository.findById(id)
             .orElseThrow(() -> new Exception("Comment not found"));
 
-        LearningPlanModel plan = learningPlanRepository.findById(comment.getPostId())
+        PlanOwnerInfo plan = learningPlanService.getPlanOwnerInfo(comment.getPostId())
             .orElseThrow(() -> new Exception("Learning plan not found"));
 
         if (!comment.getUserId().equals(userId) && !plan.getUserEmail().equals(userId)) {
             throw new Exception("Unauthorized: Only the comment owner or course owner can delete it");
         }
 
-        List<CommentModel> replies = commentRepository.findByPostId(comment.getPostId()).stream()
-            .filter(c -> id.equals(c.getParentId()))
-            .toList();
+        List<CommentModel> replies = commentRepository.findByPostIdAndParentId(comment.getPostId(), id);
         
         for (CommentModel reply : replies) {
             commentRepository.deleteById(reply.getId());
@@ -204,7 +318,7 @@ public class CommentService {
         CommentModel comment = commentRepository.findById(id)
             .orElseThrow(() -> new Exception("Comment not found"));
 
-        LearningPlanModel plan = learningPlanRepository.findById(comment.getPostId())
+        PlanOwnerInfo plan = learningPlanService.getPlanOwnerInfo(comment.getPostId())
             .orElseThrow(() -> new Exception("Learning plan not found"));
 
         if (!plan.getUserEmail().equals(userId)) {
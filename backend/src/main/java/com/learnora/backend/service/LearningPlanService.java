@@ -1,24 +1,61 @@
 package com.learnora.backend.service;
 
+import com.learnora.backend.config.CacheConfig;
+import com.learnora.backend.dto.CursorPage;
+import com.learnora.backend.dto.LearningPlanSummary;
+import com.learnora.backend.dto.PlanOwnerInfo;
 import com.learnora.backend.model.LearningPlanModel;
 import com.learnora.backend.repository.LearningPlanRepository;
+import com.learnora.backend.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
+import org.bson.Document;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "learnora.service", histogram = true)
 public class LearningPlanService {
+    private static final Logger logger = LoggerFactory.getLogger(LearningPlanService.class);
+    private static final int MAX_PAGE_SIZE = 100;
 
     @Autowired
     private LearningPlanRepository learningPlanRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private MediaService mediaService;
+
     public LearningPlanModel createPlan(String userEmail, LearningPlanModel plan) throws Exception {
         if (plan.getTitle() == null || plan.getTitle().isEmpty()) {
             throw new IllegalArgumentException("Plan title is required");
@@ -29,10 +66,17 @@ public class LearningPlanService {
         if (plan.getStartDate().after(plan.getEndDate())) {
             throw new IllegalArgumentException("Start date must be before end date");
         }
-        
-        System.out.println("Creating plan with image: " + (plan.getImageUrl() != null ? "Image present" : "No image"));
+
+        if (mediaService.isDataUrl(plan.getImageUrl())) {
+            plan.setImageUrl(mediaService.storeDataUrl(plan.getImageUrl()));
+        }
         plan.setUserEmail(userEmail);
         plan.setProgress(calculateProgress(plan));
+        plan.setEnrolledUsers(new ArrayList<>());
+        plan.setEnrollmentCount(0);
+        plan.setSourcePlanId(null);
+        // Shared plans are paged by creation time, so it is not taken from the client
+        plan.setCreatedAt(new Date());
         return learningPlanRepository.save(plan);
     }
 
@@ -54,17 +98,37 @@ public class LearningPlanService {
         return plans != null ? plans : Collections.emptyList();
     }
 
+    // Read-through: concurrent misses for the same plan share one load. Callers must treat the
+    // returned plan as read-only since it is the cached instance.
+    @Cacheable(cacheNames = CacheConfig.PLANS, sync = true)
     public LearningPlanModel getPlanById(String planId) throws Exception {
         return learningPlanRepository.findById(planId)
                 .orElseThrow(() -> new Exception("Learning plan not found"));
     }
 
+    /**
+     * Owner and title of a plan, read with a projection and cached separately from full plans
+     * so comment and reaction handling never loads topics or enrolled users. Not {@code sync}:
+     * CommentService looks this up on virtual threads, and a load inside Caffeine's compute would
+     * pin their carrier. Concurrent misses each run the small projected query instead.
+     */
+    @Cacheable(cacheNames = CacheConfig.PLAN_OWNERS)
+    public Optional<PlanOwnerInfo> getPlanOwnerInfo(String planId) {
+        Query query = new Query(Criteria.where("_id").is(planId));
+        query.fields().include("title", "userEmail");
+        LearningPlanModel plan = mongoTemplate.findOne(query, LearningPlanModel.class);
+        return Optional.ofNullable(plan)
+                .map(found -> new PlanOwnerInfo(found.getId(), found.getTitle(), found.getUserEmail()));
+    }
+
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PLANS, key = "#updates.id"),
+            @CacheEvict(cacheNames = CacheConfig.PLAN_OWNERS, key = "#updates.id")
+    })
     public LearningPlanModel updatePlan(String userEmail, LearningPlanModel updates) throws Exception {
         LearningPlanModel existingPlan = learningPlanRepository.findByIdAndUserEmail(updates.getId(), userEmail)
                 .orElseThrow(() -> new Exception("Learning plan not found or not owned by user"));
 
-        System.out.println("Updating plan with image: " + (updates.getImageUrl() != null ? "Image present" : "No image"));
-
         if (updates.getTitle() != null) {
             existingPlan.setTitle(updates.getTitle());
         }
@@ -91,13 +155,32 @@ public class LearningPlanService {
             existingPlan.setStatus(updates.getStatus());
         }
         if (updates.getImageUrl() != null) {
-            existingPlan.setImageUrl(updates.getImageUrl());
+            existingPlan.setImageUrl(mediaService.isDataUrl(updates.getImageUrl())
+                    ? mediaService.storeDataUrl(updates.getImageUrl())
+                    : updates.getImageUrl());
         }
         existingPlan.setShared(updates.isShared());
         existingPlan.setProgress(calculateProgress(existingPlan));
-        return learningPlanRepository.save(existingPlan);
+
+        // Only the editable fields are written, so enrollments that happen meanwhile are kept
+        Update update = new Update()
+                .set("title", existingPlan.getTitle())
+                .set("description", existingPlan.getDescription())
+                .set("startDate", existingPlan.getStartDate())
+                .set("endDate", existingPlan.getEndDate())
+                .set("topics", existingPlan.getTopics())
+                .set("status", existingPlan.getStatus())
+                .set("imageUrl", existingPlan.getImageUrl())
+                .set("shared", existingPlan.isShared())
+                .set("progress", existingPlan.getProgress());
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(existingPlan.getId())), update,
+                FindAndModifyOptions.options().returnNew(true), LearningPlanModel.class);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PLANS, key = "#planId"),
+            @CacheEvict(cacheNames = CacheConfig.PLAN_OWNERS, key = "#planId")
+    })
     public void deletePlan(String planId, String userEmail) throws Exception {
         LearningPlanModel plan = learningPlanRepository.findByIdAndUserEmail(planId, userEmail)
                 .orElseThrow(() -> new Exception("Learning plan not found or not owned by user"));
@@ -105,29 +188,63 @@ public class LearningPlanService {
     }
 
     public List<LearningPlanModel> getSharedPlans() throws Exception {
-        System.out.println("Service: Getting shared plans");
-        try {
-            // Get the current user's email from the security context
-            Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-            String currentUserEmail = auth.getName();
-            
-            if (currentUserEmail == null || currentUserEmail.isEmpty()) {
-                throw new Exception("User must be logged in to view shared plans");
+        // Get the current user's email from the security context
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        String currentUserEmail = auth.getName();
+
+        if (currentUserEmail == null || currentUserEmail.isEmpty()) {
+            throw new Exception("User must be logged in to view shared plans");
+        }
+
+        // Return all shared plans for any logged-in user
+        List<LearningPlanModel> allSharedPlans = learningPlanRepository.findByShared(true);
+        logger.debug("Found {} shared plans", allSharedPlans.size());
+        return allSharedPlans;
+    }
+
+    // Newest-first page of shared plan summaries, keyed on (createdAt, id) and served by the
+    // shared_createdAt index. Only counts of topics/enrollments leave the database.
+    public CursorPage<LearningPlanSummary> getSharedPlanSummaries(String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        Criteria criteria = Criteria.where("shared").is(true);
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor position = PageCursor.decode(cursor);
+            Date createdAt = new Date(position.getTimestamp());
+            criteria = criteria.orOperator(
+                    Criteria.where("createdAt").lt(createdAt),
+                    Criteria.where("createdAt").is(createdAt).and("_id").lt(new ObjectId(position.getId())));
+        }
+
+        TypedAggregation<LearningPlanModel> aggregation = Aggregation.newAggregation(LearningPlanModel.class,
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "createdAt", "_id")),
+                Aggregation.limit(pageSize + 1),
+                Aggregation.project("title", "userEmail", "imageUrl", "createdAt")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("topics").then(Collections.emptyList())))
+                        .as("topicCount")
+                        .and(ArrayOperators.Size.lengthOfArray(
+                                ConditionalOperators.ifNull("enrolledUsers").then(Collections.emptyList())))
+                        .as("enrollmentCount"));
+
+        List<LearningPlanSummary> summaries = new ArrayList<>(
+                mongoTemplate.aggregate(aggregation, LearningPlanSummary.class).getMappedResults());
+
+        String nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            LearningPlanSummary last = summaries.get(pageSize - 1);
+            // Plans without createdAt sort last and cannot be paged past; EnrollmentMigration backfills them
+            if (last.getCreatedAt() != null) {
+                nextCursor = new PageCursor(last.getCreatedAt().getTime(), last.getId()).encode();
             }
-            
-            // Get all shared plans without any filtering
-            List<LearningPlanModel> allSharedPlans = learningPlanRepository.findByShared(true);
-            System.out.println("Service: Found " + allSharedPlans.size() + " total shared plans");
-            
-            // Return all shared plans for any logged-in user
-            return allSharedPlans;
-        } catch (Exception e) {
-            System.err.println("Service error in getSharedPlans: " + e.getMessage());
-            e.printStackTrace();
-            throw e;
         }
+        return new CursorPage<>(summaries, nextCursor);
     }
 
+    // Enrollment changes the shared plan's enrolled users and counter, not its owner or title
+    @CacheEvict(cacheNames = CacheConfig.PLANS, key = "#planId")
     public LearningPlanModel startLearningPlan(String userEmail, String planId) throws Exception {
         LearningPlanModel sharedPlan = learningPlanRepository.findById(planId)
                 .orElseThrow(() -> new Exception("Learning plan not found"));
@@ -136,13 +253,10 @@ public class LearningPlanService {
             throw new Exception("This learning plan is not shared");
         }
 
-        // Check if user already has a copy of this plan
-        List<LearningPlanModel> existingUserPlans = learningPlanRepository.findByUserEmail(userEmail);
-        for (LearningPlanModel existingPlan : existingUserPlans) {
-            if (existingPlan.getTitle().equals(sharedPlan.getTitle()) && 
-                existingPlan.getUserEmail().equals(userEmail)) {
-                return existingPlan; // Return existing plan if user already has it
-            }
+        // Check if user already has a copy of this plan (one lookup on the userEmail+sourcePlanId index)
+        Optional<LearningPlanModel> existingCopy = learningPlanRepository.findByUserEmailAndSourcePlanId(userEmail, planId);
+        if (existingCopy.isPresent()) {
+            return existingCopy.get();
         }
 
         // Create a new plan for the user
@@ -155,6 +269,7 @@ public class LearningPlanService {
         userPlan.setStatus("In Progress");
         userPlan.setShared(false);
         userPlan.setImageUrl(sharedPlan.getImageUrl());
+        userPlan.setSourcePlanId(planId);
         
         List<LearningPlanModel.Topic> userTopics = sharedPlan.getTopics().stream()
                 .map(topic -> {
@@ -169,32 +284,93 @@ public class LearningPlanService {
         
         userPlan.setProgress(0);
 
-        // Update the shared plan's enrolled users
-        List<String> enrolledUsers = sharedPlan.getEnrolledUsers();
-        if (!enrolledUsers.contains(userEmail)) {
-            enrolledUsers.add(userEmail);
-            sharedPlan.setEnrolledUsers(enrolledUsers);
-            // Save the shared plan first to ensure the enrolled users are updated
-            learningPlanRepository.save(sharedPlan);
+        // A concurrent request for the same user and plan loses on the unique index and
+        // returns the copy created by the winner
+        LearningPlanModel savedPlan;
+        try {
+            savedPlan = learningPlanRepository.insert(userPlan);
+        } catch (DuplicateKeyException e) {
+            return learningPlanRepository.findByUserEmailAndSourcePlanId(userEmail, planId)
+                    .orElseThrow(() -> e);
         }
 
-        // Save and return the user's new plan
-        return learningPlanRepository.save(userPlan);
+        // Add the user to the shared plan's enrolled users; the counter only moves when the
+        // user was not enrolled yet
+        mongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(planId).and("enrolledUsers").ne(userEmail)),
+                new Update().addToSet("enrolledUsers", userEmail).inc("enrollmentCount", 1),
+                LearningPlanModel.class);
+        return savedPlan;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.PLANS, key = "#planId")
     public LearningPlanModel updateTopicProgress(String userEmail, String planId, Integer topicIndex, Boolean completed) throws Exception {
-        LearningPlanModel plan = learningPlanRepository.findByIdAndUserEmail(planId, userEmail)
-                .orElseThrow(() -> new Exception("Learning plan not found or not owned by user"));
-        
-        List<LearningPlanModel.Topic> topics = plan.getTopics();
-        if (topicIndex < 0 || topicIndex >= topics.size()) {
+        return updateTopicsProgress(userEmail, planId, Map.of(topicIndex, completed));
+    }
+
+    /**
+     * Sets the completion flag of several topics and recomputes progress in one findAndModify.
+     * The update is a pipeline evaluated by the database, so only topics and progress are
+     * written (the rest of the plan, image included, is left alone) and the returned plan
+     * carries only the progress-related fields.
+     */
+    @CacheEvict(cacheNames = CacheConfig.PLANS, key = "#planId")
+    public LearningPlanModel updateTopicsProgress(String userEmail, String planId, Map<Integer, Boolean> changes) throws Exception {
+        if (changes.isEmpty()) {
+            throw new IllegalArgumentException("At least one topic change is required");
+        }
+        List<Integer> indices = new ArrayList<>(changes.keySet());
+        List<Boolean> values = indices.stream().map(changes::get).collect(Collectors.toList());
+        int highestIndex = Collections.max(indices);
+        if (Collections.min(indices) < 0 || values.contains(null)) {
             throw new IllegalArgumentException("Invalid topic index");
         }
-        
-        LearningPlanModel.Topic topic = topics.get(topicIndex);
-        topic.setCompleted(completed);
-        plan.setProgress(calculateProgress(plan));
-        return learningPlanRepository.save(plan);
+
+        // The topics.N existence check rejects out-of-range indexes in the same operation
+        Query query = new Query(Criteria.where("_id").is(planId)
+                .and("userEmail").is(userEmail)
+                .and("topics." + highestIndex).exists(true));
+        query.fields().include("userEmail", "title", "status", "progress", "topics", "sourcePlanId");
+
+        LearningPlanModel updated = mongoTemplate.findAndModify(query, topicCompletionUpdate(indices, values),
+                FindAndModifyOptions.options().returnNew(true), LearningPlanModel.class);
+        if (updated == null) {
+            if (!mongoTemplate.exists(new Query(Criteria.where("_id").is(planId).and("userEmail").is(userEmail)), LearningPlanModel.class)) {
+                throw new Exception("Learning plan not found or not owned by user");
+            }
+            throw new IllegalArgumentException("Invalid topic index");
+        }
+        return updated;
+    }
+
+    // Two $set stages: the first rewrites the completed flag of the listed topics, the second
+    // derives progress from the updated topics the same way calculateProgress does.
+    private static AggregationUpdate topicCompletionUpdate(List<Integer> indices, List<Boolean> values) {
+        Document topic = new Document("$arrayElemAt", List.of("$topics", "$$i"));
+        Document position = new Document("$indexOfArray", List.of(indices, "$$i"));
+        Document changedTopic = new Document("$mergeObjects", List.of("$$topic",
+                new Document("completed", new Document("$arrayElemAt", List.of(values, "$$position")))));
+        Document topics = new Document("$map", new Document("input",
+                new Document("$range", List.of(0, new Document("$size", "$topics"))))
+                .append("as", "i")
+                .append("in", new Document("$let", new Document("vars",
+                        new Document("topic", topic).append("position", position))
+                        .append("in", new Document("$cond", List.of(
+                                new Document("$eq", List.of("$$position", -1)), "$$topic", changedTopic))))));
+
+        Document completedCount = new Document("$size", new Document("$filter",
+                new Document("input", "$topics").append("as", "t").append("cond", "$$t.completed")));
+        Document percentage = new Document("$multiply", List.of(
+                new Document("$divide", List.of(completedCount, new Document("$size", "$topics"))), 100));
+        // floor(x + 0.5) rather than $round, which rounds halves to even unlike Math.round
+        Document progress = new Document("$cond", List.of(
+                new Document("$eq", List.of(new Document("$size", "$topics"), 0)),
+                0,
+                new Document("$toInt", new Document("$floor", new Document("$add", List.of(percentage, 0.5))))));
+
+        AggregationOperation setTopics = context -> new Document("$set", new Document("topics", topics));
+        AggregationOperation setProgress = context -> new Document("$set", new Document("progress", progress));
+        return AggregationUpdate.from(List.of(setTopics, setProgress));
     }
 
     public LearningPlanModel getUserProgress(String userEmail, String planId) throws Exception {
@@ -208,7 +384,7 @@ public class LearningPlanService {
                 .orElseThrow(() -> new Exception("Learning plan not found or not owned by user"));
     }
 
-    private Integer calculateProgress(LearningPlanModel plan) {
+    static Integer calculateProgress(LearningPlanModel plan) {
         if (plan.getTopics() == null || plan.getTopics().isEmpty()) {
             return 0;
         }
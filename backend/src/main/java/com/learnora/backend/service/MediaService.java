@@ -0,0 +1,84 @@
+package com.learnora.backend.service;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.data.mongodb.gridfs.GridFsTemplate;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.gridfs.GridFsCriteria.whereFilename;
+
+/**
+ * Binary store for images such as learning plan covers. Files live in GridFS and are
+ * content-addressed: the id is the SHA-256 of the bytes, so copies of a plan share one file
+ * and the id doubles as a strong ETag.
+ */
+@Service
+@Timed(value = "learnora.service", histogram = true)
+public class MediaService {
+    private static final Logger logger = LoggerFactory.getLogger(MediaService.class);
+
+    public static final String MEDIA_PATH = "/api/media/";
+    private static final String DATA_URL_PREFIX = "data:";
+    private static final String BASE64_MARKER = ";base64";
+    private static final long MAX_IMAGE_BYTES = 5 * 1024 * 1024; // matches the upload limit in the plan form
+
+    @Autowired
+    private GridFsTemplate gridFsTemplate;
+
+    public boolean isDataUrl(String value) {
+        return value != null && value.startsWith(DATA_URL_PREFIX);
+    }
+
+    /**
+     * Stores the image carried by a base64 data URL and returns the media URL that should be
+     * kept on the owning document instead.
+     */
+    public String storeDataUrl(String dataUrl) {
+        int comma = dataUrl.indexOf(',');
+        if (comma < 0 || !dataUrl.substring(0, comma).endsWith(BASE64_MARKER)) {
+            throw new IllegalArgumentException("Unsupported image data URL");
+        }
+        String contentType = dataUrl.substring(DATA_URL_PREFIX.length(), comma - BASE64_MARKER.length());
+        if (!contentType.startsWith("image/")) {
+            throw new IllegalArgumentException("Only image uploads are supported");
+        }
+        byte[] bytes = Base64.getDecoder().decode(dataUrl.substring(comma + 1));
+        return MEDIA_PATH + store(bytes, contentType);
+    }
+
+    public String store(byte[] bytes, String contentType) {
+        if (bytes.length > MAX_IMAGE_BYTES) {
+            throw new IllegalArgumentException("Image size should be less than 5MB");
+        }
+        String id = sha256(bytes);
+        if (gridFsTemplate.findOne(query(whereFilename().is(id))) == null) {
+            gridFsTemplate.store(new ByteArrayInputStream(bytes), id, contentType);
+            logger.debug("Stored media {} ({} bytes, {})", id, bytes.length, contentType);
+        }
+        return id;
+    }
+
+    public Optional<GridFsResource> load(String id) {
+        GridFsResource resource = gridFsTemplate.getResource(id);
+        return resource.exists() ? Optional.of(resource) : Optional.empty();
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
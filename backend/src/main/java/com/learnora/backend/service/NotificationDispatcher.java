@@ -0,0 +1,234 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.model.NotificationModel;
+import com.learnora.backend.repository.NotificationRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes notifications off the request thread. Events go into a bounded queue; a single writer
+ * collects them for a short linger window, coalesces events that share a key (later wins) and
+ * stores each batch with one insertMany. When the queue is full the caller writes its own
+ * notification synchronously, which slows producers down instead of dropping events.
+ * Recipients of written notifications are remembered until the next trim to the per-user cap.
+ */
+@Component
+public class NotificationDispatcher implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationDispatcher.class);
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Autowired
+    private NotificationStreamRegistry streamRegistry;
+
+    private final BlockingQueue<PendingNotification> queue;
+    private final Set<String> recipients = ConcurrentHashMap.newKeySet();
+    private final int batchSize;
+    private final long lingerMillis;
+    private final long shutdownTimeoutMillis;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong callerRuns = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public NotificationDispatcher(@Value("${learnora.notifications.queue-capacity:10000}") int capacity,
+                                  @Value("${learnora.notifications.batch-size:200}") int batchSize,
+                                  @Value("${learnora.notifications.linger-ms:250}") long lingerMillis,
+                                  @Value("${learnora.notifications.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "notification-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a notification for writing. Notifications with the same non-null coalesce key that
+     * land in the same batch collapse into the last one.
+     */
+    public void dispatch(NotificationModel notification, String coalesceKey) {
+        if (running && queue.offer(new PendingNotification(notification, coalesceKey))) {
+            enqueued.incrementAndGet();
+            return;
+        }
+        callerRuns.incrementAndGet();
+        write(List.of(notification));
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // No interrupt: it could abort an insert in flight. The writer notices within its poll
+        // timeout and drains the queue before exiting.
+        running = false;
+        writer.join(shutdownTimeoutMillis);
+        // dispatch() may have queued after the writer's last drain, having read running before
+        // it was cleared; those are written here rather than left behind
+        List<PendingNotification> remaining = new ArrayList<>(batchSize);
+        while (queue.drainTo(remaining, batchSize) > 0) {
+            write(coalesce(remaining));
+            remaining.clear();
+        }
+        logger.info("Notification dispatcher stopped: {}", getStats());
+    }
+
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("queued", (long) queue.size());
+        stats.put("enqueued", enqueued.get());
+        stats.put("coalesced", coalesced.get());
+        stats.put("written", written.get());
+        stats.put("failed", failed.get());
+        stats.put("callerRuns", callerRuns.get());
+        return stats;
+    }
+
+    /**
+     * Users who received notifications since the last call. Taken off the set one by one, so
+     * recipients added meanwhile are kept for the next call.
+     */
+    public Set<String> takeRecipients() {
+        Set<String> taken = new HashSet<>();
+        for (Iterator<String> it = recipients.iterator(); it.hasNext(); ) {
+            taken.add(it.next());
+            it.remove();
+        }
+        return taken;
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("learnora.notifications.queue.depth", this, NotificationDispatcher::getQueueDepth)
+                .description("Notifications waiting for the writer")
+                .register(registry);
+        Gauge.builder("learnora.notifications.queue.remaining", queue, BlockingQueue::remainingCapacity)
+                .description("Free slots before producers start writing synchronously")
+                .register(registry);
+        bindCounter(registry, "enqueued", enqueued);
+        bindCounter(registry, "coalesced", coalesced);
+        bindCounter(registry, "written", written);
+        bindCounter(registry, "failed", failed);
+        bindCounter(registry, "caller.runs", callerRuns);
+    }
+
+    private static void bindCounter(MeterRegistry registry, String name, AtomicLong value) {
+        FunctionCounter.builder("learnora.notifications." + name, value, AtomicLong::get)
+                .register(registry);
+    }
+
+    private void writeLoop() {
+        List<PendingNotification> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                // Not used for shutdown; write what was collected and keep going
+            }
+            if (!batch.isEmpty()) {
+                write(coalesce(batch));
+                batch.clear();
+            }
+        }
+    }
+
+    private void collectBatch(List<PendingNotification> batch) throws InterruptedException {
+        PendingNotification first = queue.poll(1, TimeUnit.SECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                queue.drainTo(batch, batchSize - batch.size());
+                return;
+            }
+            PendingNotification next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private List<NotificationModel> coalesce(List<PendingNotification> batch) {
+        Map<Object, NotificationModel> latest = new LinkedHashMap<>();
+        for (PendingNotification pending : batch) {
+            Object key = pending.coalesceKey != null ? pending.coalesceKey : pending;
+            if (latest.remove(key) != null) {
+                coalesced.incrementAndGet();
+            }
+            latest.put(key, pending.notification);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private void write(List<NotificationModel> notifications) {
+        try {
+            notificationRepository.insert(notifications);
+            written.addAndGet(notifications.size());
+            notifications.forEach(notification -> recipients.add(notification.getUserId()));
+        } catch (Exception e) {
+            failed.addAndGet(notifications.size());
+            logger.error("Failed to write {} notifications: {}", notifications.size(), e.getMessage());
+            return;
+        }
+        // Pushed only after insert so streamed notifications carry their id
+        for (NotificationModel notification : notifications) {
+            try {
+                streamRegistry.publishNotification(notification);
+            } catch (Exception e) {
+                logger.warn("Failed to push notification {}: {}", notification.getId(), e.getMessage());
+            }
+        }
+    }
+
+    private static class PendingNotification {
+        private final NotificationModel notification;
+        private final String coalesceKey;
+
+        PendingNotification(NotificationModel notification, String coalesceKey) {
+            this.notification = notification;
+            this.coalesceKey = coalesceKey;
+        }
+    }
+}
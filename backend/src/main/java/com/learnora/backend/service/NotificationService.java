@@ -1,53 +1,121 @@
 package com.learnora.backend.service;
 
+import com.learnora.backend.dto.CursorPage;
 import com.learnora.backend.model.NotificationModel;
 import com.learnora.backend.repository.NotificationRepository;
+import com.learnora.backend.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Set;
 
 @Service
+@Timed(value = "learnora.service", histogram = true)
 public class NotificationService {
     private static final Logger logger = LoggerFactory.getLogger(NotificationService.class);
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Value("${learnora.notifications.max-per-user:1000}")
+    private int maxPerUser;
+
     @Autowired
     private NotificationRepository notificationRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private NotificationStreamRegistry streamRegistry;
+
     public NotificationModel createNotification(String userId, String type, String message, String relatedId, String courseId) throws Exception {
-        logger.info("Creating notification for user {}: type={}, message={}, relatedId={}, courseId={}", 
+        return createNotification(userId, type, message, relatedId, courseId, null);
+    }
+
+    /**
+     * Hands the notification to the asynchronous writer and returns immediately; the returned
+     * model has no id yet. Notifications sharing a {@code coalesceKey} that are written in the
+     * same batch collapse into the most recent one.
+     */
+    public NotificationModel createNotification(String userId, String type, String message, String relatedId, String courseId, String coalesceKey) throws Exception {
+        logger.debug("Creating notification for user {}: type={}, message={}, relatedId={}, courseId={}", 
             userId, type, message, relatedId, courseId);
         NotificationModel notification = new NotificationModel(userId, type, message, relatedId, courseId);
-        NotificationModel savedNotification = notificationRepository.save(notification);
-        logger.info("Notification created successfully with ID: {}", savedNotification.getId());
-        return savedNotification;
+        notificationDispatcher.dispatch(notification, coalesceKey);
+        return notification;
     }
 
+    /**
+     * Most recent notifications of the user, limited to one page. Use
+     * {@link #getNotificationsPage(String, boolean, String, int)} to go further back.
+     */
     public List<NotificationModel> getUserNotifications(String userId) {
-        logger.info("Fetching all notifications for user: {}", userId);
-        List<NotificationModel> notifications = notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        logger.info("Found {} notifications for user {}", notifications.size(), userId);
-        return notifications;
+        return getNotificationsPage(userId, false, null, MAX_PAGE_SIZE).getItems();
     }
 
     public List<NotificationModel> getUnreadNotifications(String userId) {
-        logger.info("Fetching unread notifications for user: {}", userId);
-        List<NotificationModel> notifications = notificationRepository.findByUserIdAndReadOrderByCreatedAtDesc(userId, false);
-        logger.info("Found {} unread notifications for user {}", notifications.size(), userId);
-        return notifications;
+        return getNotificationsPage(userId, true, null, MAX_PAGE_SIZE).getItems();
+    }
+
+    // Newest-first keyset page over the userId(+read)+createdAt indexes
+    public CursorPage<NotificationModel> getNotificationsPage(String userId, boolean unreadOnly, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Criteria criteria = Criteria.where("userId").is(userId);
+        if (unreadOnly) {
+            criteria = criteria.and("read").is(false);
+        }
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor position = PageCursor.decode(cursor);
+            LocalDateTime createdAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(position.getTimestamp()), ZoneId.systemDefault());
+            criteria = criteria.orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lt(new ObjectId(position.getId())));
+        }
+
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+            .limit(pageSize + 1);
+        List<NotificationModel> notifications = mongoTemplate.find(query, NotificationModel.class);
+
+        String nextCursor = null;
+        if (notifications.size() > pageSize) {
+            notifications = notifications.subList(0, pageSize);
+            NotificationModel last = notifications.get(pageSize - 1);
+            nextCursor = new PageCursor(
+                last.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                last.getId()).encode();
+        }
+        return new CursorPage<>(notifications, nextCursor);
     }
 
     public long getUnreadCount(String userId) {
-        logger.info("Fetching unread count for user: {}", userId);
+        logger.debug("Fetching unread count for user: {}", userId);
         long count = notificationRepository.countByUserIdAndRead(userId, false);
-        logger.info("Unread count for user {}: {}", userId, count);
+        logger.debug("Unread count for user {}: {}", userId, count);
         return count;
     }
 
     public NotificationModel markAsRead(String notificationId, String userEmail) {
-        logger.info("Marking notification as read: {} for user: {}", notificationId, userEmail);
+        logger.debug("Marking notification as read: {} for user: {}", notificationId, userEmail);
         NotificationModel notification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
 
@@ -55,19 +123,90 @@ public class NotificationService {
             throw new RuntimeException("Unauthorized: You can only mark your own notifications as read");
         }
 
+        boolean wasUnread = !notification.isRead();
         notification.setRead(true);
+        if (wasUnread) {
+            notification.setReadAt(LocalDateTime.now());
+        }
         NotificationModel updatedNotification = notificationRepository.save(notification);
-        logger.info("Notification marked as read successfully: {}", notificationId);
+        if (wasUnread) {
+            streamRegistry.publishUnreadDelta(userEmail, -1);
+        }
+        logger.debug("Notification marked as read successfully: {}", notificationId);
         return updatedNotification;
     }
 
-    public void markAllAsRead(String userId) {
-        logger.info("Marking all notifications as read for user: {}", userId);
-        List<NotificationModel> unreadNotifications = getUnreadNotifications(userId);
-        unreadNotifications.forEach(notification -> {
-            notification.setRead(true);
-            notificationRepository.save(notification);
-        });
-        logger.info("Marked {} notifications as read for user {}", unreadNotifications.size(), userId);
+    /**
+     * Marks every unread notification of the user as read in one update and returns how many
+     * were changed.
+     */
+    public long markAllAsRead(String userId) {
+        return markReadUpTo(userId, null);
+    }
+
+    /**
+     * Marks the user's unread notifications created at or before {@code upTo} as read, so a
+     * client can acknowledge what it has shown without also clearing notifications that arrived
+     * in the meantime. A null bound marks everything.
+     */
+    public long markReadUpTo(String userId, LocalDateTime upTo) {
+        Criteria criteria = Criteria.where("userId").is(userId).and("read").is(false);
+        if (upTo != null) {
+            criteria = criteria.and("createdAt").lte(upTo);
+        }
+        long modified = mongoTemplate.updateMulti(Query.query(criteria), Update.update("read", true).set("readAt", LocalDateTime.now()), NotificationModel.class)
+                .getModifiedCount();
+        streamRegistry.publishUnreadDelta(userId, -modified);
+        logger.debug("Marked {} notifications as read for user {}", modified, userId);
+        return modified;
+    }
+
+    /**
+     * Same as {@link #markReadUpTo(String, LocalDateTime)}, bounded by the creation time of one
+     * of the user's notifications.
+     */
+    public long markReadUpToNotification(String userId, String notificationId) {
+        NotificationModel notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new RuntimeException("Notification not found"));
+        if (!notification.getUserId().equals(userId)) {
+            throw new RuntimeException("Unauthorized: You can only mark your own notifications as read");
+        }
+        return markReadUpTo(userId, notification.getCreatedAt());
+    }
+
+    /**
+     * Deletes the oldest notifications of users who have more than the configured maximum.
+     * Only users who received notifications since the last run are checked, each with one
+     * lookup on the userId+createdAt index. Read notifications also expire through the TTL
+     * index on readAt.
+     */
+    @Scheduled(cron = "${learnora.notifications.trim-cron:0 30 * * * *}")
+    public void trimToCap() {
+        if (maxPerUser <= 0) {
+            return;
+        }
+        Set<String> recipients = notificationDispatcher.takeRecipients();
+
+        long deleted = 0;
+        int trimmedUsers = 0;
+        for (String userId : recipients) {
+            Query newestToDelete = new Query(Criteria.where("userId").is(userId))
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+                .skip(maxPerUser)
+                .limit(1);
+            newestToDelete.fields().include("createdAt");
+            NotificationModel cutoff = mongoTemplate.findOne(newestToDelete, NotificationModel.class);
+            if (cutoff == null) {
+                continue;
+            }
+            Criteria older = Criteria.where("userId").is(userId).orOperator(
+                Criteria.where("createdAt").lt(cutoff.getCreatedAt()),
+                Criteria.where("createdAt").is(cutoff.getCreatedAt()).and("_id").lte(new ObjectId(cutoff.getId())));
+            deleted += mongoTemplate.remove(new Query(older), NotificationModel.class).getDeletedCount();
+            trimmedUsers++;
+        }
+        if (deleted > 0) {
+            logger.info("Trimmed {} notifications from {} users over the cap of {}", deleted, trimmedUsers, maxPerUser);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,352 @@
+package com.learnora.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.learnora.backend.model.NotificationModel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory registry of per-user server-sent event streams for notifications.
+ *
+ * <p>Event ids are {@code <bootId>-<sequence>}. The last few events of each user are kept so a
+ * client reconnecting with {@code Last-Event-ID} gets what it missed; if that is no longer
+ * possible (gap too old, or the server restarted) it receives a {@code resync} event and should
+ * reload its state.
+ *
+ * <p>Publishing never writes to a client: events are queued per connection and sent by a small
+ * delivery pool, since a send blocks until the client's socket accepts the data. A connection
+ * whose queue fills up is closed; its client reconnects and catches up through the replay above.
+ */
+@Component
+public class NotificationStreamRegistry implements MeterBinder {
+    private static final Logger logger = LoggerFactory.getLogger(NotificationStreamRegistry.class);
+
+    public static final String NOTIFICATION_EVENT = "notification";
+    public static final String UNREAD_COUNT_EVENT = "unread-count";
+    public static final String RESYNC_EVENT = "resync";
+
+    private static final StreamEvent HEARTBEAT = new StreamEvent(null, null, null);
+
+    private final String bootId = UUID.randomUUID().toString().substring(0, 8);
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong slowClosed = new AtomicLong();
+    private final Map<String, List<Connection>> connections = new ConcurrentHashMap<>();
+    private final Cache<String, UserEvents> recentEvents;
+    private final ExecutorService delivery;
+
+    private final int maxConnectionsPerUser;
+    private final int replayBufferSize;
+    private final int maxPendingEvents;
+    private final long emitterTimeoutMillis;
+
+    public NotificationStreamRegistry(@Value("${learnora.notifications.stream.max-connections-per-user:5}") int maxConnectionsPerUser,
+                                      @Value("${learnora.notifications.stream.replay-buffer:50}") int replayBufferSize,
+                                      @Value("${learnora.notifications.stream.max-pending:100}") int maxPendingEvents,
+                                      @Value("${learnora.notifications.stream.delivery-threads:8}") int deliveryThreads,
+                                      @Value("${learnora.notifications.stream.timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.replayBufferSize = replayBufferSize;
+        this.maxPendingEvents = maxPendingEvents;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.recentEvents = Caffeine.newBuilder()
+                .maximumSize(50_000)
+                .expireAfterAccess(Duration.ofMinutes(15))
+                .build();
+        // Platform threads: SseEmitter.send is synchronized and would pin a virtual thread's carrier
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.delivery = Executors.newFixedThreadPool(deliveryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream for the user. New connections send either the events missed since
+     * {@code lastEventId} or the current unread count. When the user already has the maximum
+     * number of streams, the oldest one is closed.
+     */
+    public SseEmitter subscribe(String userId, String lastEventId, LongSupplier unreadCount) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        Connection connection = new Connection(userId, emitter);
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(e -> remove(connection));
+
+        boolean reconnect = lastEventId != null && !lastEventId.isEmpty();
+        long count = reconnect ? 0 : unreadCount.getAsLong();
+        // No buffer means it expired or was evicted, and whatever it held is gone with it
+        UserEvents previous = recentEvents.getIfPresent(userId);
+        UserEvents buffer = userEvents(userId);
+        List<Connection> evicted = new ArrayList<>();
+        // Under the buffer's lock no event of the user is published, so the connection gets
+        // everything after its first events exactly once
+        synchronized (buffer) {
+            connections.compute(userId, (id, userConnections) -> {
+                List<Connection> current = userConnections != null ? userConnections : new CopyOnWriteArrayList<>();
+                current.add(connection);
+                while (current.size() > maxConnectionsPerUser) {
+                    evicted.add(current.remove(0));
+                }
+                return current;
+            });
+            if (!reconnect) {
+                connection.enqueue(new StreamEvent(nextId(buffer), UNREAD_COUNT_EVENT, Map.of("count", count)));
+            } else {
+                replay(connection, buffer, previous == buffer, lastEventId);
+            }
+        }
+        evicted.forEach(Connection::close);
+        return emitter;
+    }
+
+    public void publishNotification(NotificationModel notification) {
+        publish(notification.getUserId(), NOTIFICATION_EVENT, notification);
+    }
+
+    public void publishUnreadDelta(String userId, long delta) {
+        if (delta != 0) {
+            publish(userId, UNREAD_COUNT_EVENT, Map.of("delta", delta));
+        }
+    }
+
+    @Scheduled(fixedRateString = "${learnora.notifications.stream.heartbeat-ms:25000}")
+    public void sendHeartbeats() {
+        for (List<Connection> userConnections : connections.values()) {
+            userConnections.forEach(Connection::heartbeat);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        delivery.shutdown();
+        delivery.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    public int getConnectionCount() {
+        return connections.values().stream().mapToInt(List::size).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("learnora.notifications.stream.connections", this, NotificationStreamRegistry::getConnectionCount)
+                .description("Open notification event streams")
+                .register(registry);
+        FunctionCounter.builder("learnora.notifications.stream.slow.closed", slowClosed, AtomicLong::get)
+                .description("Streams closed because the client fell too far behind")
+                .register(registry);
+    }
+
+    private void publish(String userId, String name, Object data) {
+        UserEvents buffer = userEvents(userId);
+        synchronized (buffer) {
+            StreamEvent event = new StreamEvent(nextId(buffer), name, data);
+            buffer.events.addLast(event);
+            while (buffer.events.size() > replayBufferSize) {
+                buffer.replayableAfter = parseSequence(buffer.events.removeFirst().id);
+            }
+            // Queued in id order, as the ids are issued under the same lock
+            List<Connection> userConnections = connections.get(userId);
+            if (userConnections != null) {
+                userConnections.forEach(connection -> connection.enqueue(event));
+            }
+        }
+    }
+
+    private void replay(Connection connection, UserEvents buffer, boolean buffered, String lastEventId) {
+        long lastSequence = parseSequence(lastEventId);
+        if (lastSequence < 0 || !buffered || lastSequence < buffer.replayableAfter) {
+            logger.debug("Cannot replay notifications for {} after {}, asking client to resync", connection.userId, lastEventId);
+            connection.enqueue(new StreamEvent(nextId(buffer), RESYNC_EVENT, Map.of()));
+            return;
+        }
+        for (StreamEvent event : buffer.events) {
+            if (parseSequence(event.id) > lastSequence) {
+                connection.enqueue(event);
+            }
+        }
+    }
+
+    // Sequence of an id issued by this process, or -1 if it came from a previous one
+    private long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(bootId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    // A new buffer holds none of the events issued before it was created
+    private UserEvents userEvents(String userId) {
+        return recentEvents.get(userId, id -> new UserEvents(sequence.get()));
+    }
+
+    /**
+     * Issues the next id for an event of the buffer's user. Ids are issued under the buffer's
+     * lock, so every event of the user with a higher id than {@code replayableAfter} is either
+     * buffered or was only sent on connect (unread count, resync) and needs no replay.
+     */
+    private String nextId(UserEvents buffer) {
+        synchronized (buffer) {
+            return bootId + "-" + sequence.incrementAndGet();
+        }
+    }
+
+    private void remove(Connection connection) {
+        connection.closed();
+        connections.computeIfPresent(connection.userId, (id, userConnections) -> {
+            userConnections.remove(connection);
+            return userConnections.isEmpty() ? null : userConnections;
+        });
+    }
+
+    /**
+     * One open stream. Events wait in {@code pending} and are sent in order by at most one
+     * delivery task at a time; {@code scheduled} is true while that task runs or is queued.
+     */
+    private final class Connection {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final Deque<StreamEvent> pending = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean closed;
+
+        Connection(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void enqueue(StreamEvent event) {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                if (pending.size() >= maxPendingEvents) {
+                    slowClosed.incrementAndGet();
+                    logger.debug("Closing notification stream of {}, {} events behind", userId, pending.size());
+                    pending.clear();
+                    close();
+                    return;
+                }
+                pending.addLast(event);
+            }
+            schedule();
+        }
+
+        // Only when idle: a client that is receiving events needs no keep-alive
+        void heartbeat() {
+            synchronized (this) {
+                if (closed || !pending.isEmpty()) {
+                    return;
+                }
+                pending.addLast(HEARTBEAT);
+            }
+            schedule();
+        }
+
+        // Completed on the delivery pool, as complete() waits for a send in progress
+        void close() {
+            closed();
+            remove(this);
+            execute(emitter::complete);
+        }
+
+        synchronized void closed() {
+            closed = true;
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (scheduled) {
+                    return;
+                }
+                scheduled = true;
+            }
+            execute(this::drain);
+        }
+
+        private void drain() {
+            while (true) {
+                StreamEvent event;
+                synchronized (this) {
+                    event = closed ? null : pending.pollFirst();
+                    if (event == null) {
+                        scheduled = false;
+                        return;
+                    }
+                }
+                try {
+                    if (event == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event().id(event.id).name(event.name).data(event.data));
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    remove(this);
+                }
+            }
+        }
+
+        private void execute(Runnable task) {
+            try {
+                delivery.execute(task);
+            } catch (RuntimeException e) {
+                // Shutting down
+                remove(this);
+            }
+        }
+    }
+
+    private static class UserEvents {
+        private final Deque<StreamEvent> events = new ArrayDeque<>();
+        // Highest sequence of this user's events that may be missing from the buffer
+        private long replayableAfter;
+
+        UserEvents(long replayableAfter) {
+            this.replayableAfter = replayableAfter;
+        }
+    }
+
+    private static class StreamEvent {
+        private final String id;
+        private final String name;
+        private final Object data;
+
+        StreamEvent(String id, String name, Object data) {
+            this.id = id;
+            this.name = name;
+            this.data = data;
+        }
+    }
+}
@@ -1,78 +1,214 @@
 package com.learnora.backend.service;
 
+import com.learnora.backend.dto.CursorPage;
+import com.learnora.backend.dto.PostSummary;
 import com.learnora.backend.model.Post;
-import com.learnora.backend.model.CommentModel;
+import com.learnora.backend.model.PostCommentModel;
+import com.learnora.backend.repository.PostCommentRepository;
 import com.learnora.backend.repository.PostRepository;
+import com.learnora.backend.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
+import org.bson.types.ObjectId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ArrayOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.ProjectionOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
 import java.util.List;
-import java.util.Optional;
 
 @Service
+@Timed(value = "learnora.service", histogram = true)
 public class PostService {
+    private static final int MAX_PAGE_SIZE = 100;
+
     @Autowired
     private PostRepository postRepository;
 
-    public List<Post> getAllPosts() {
-        return postRepository.findAll();
+    @Autowired
+    private PostCommentRepository postCommentRepository;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    /**
+     * Newest-first page of post summaries over the created index. When {@code authorIds} is not
+     * null only posts by those users are returned (served by the userId+created index).
+     */
+    public CursorPage<PostSummary> getFeed(List<String> authorIds, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        if (authorIds != null && authorIds.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+
+        Criteria criteria = authorIds != null ? Criteria.where("userId").in(authorIds) : new Criteria();
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor position = PageCursor.decode(cursor);
+            Date created = new Date(position.getTimestamp());
+            criteria = criteria.orOperator(
+                Criteria.where("created").lt(created),
+                Criteria.where("created").is(created).and("_id").lt(new ObjectId(position.getId())));
+        }
+
+        TypedAggregation<Post> aggregation = Aggregation.newAggregation(Post.class,
+            Aggregation.match(criteria),
+            Aggregation.sort(Sort.by(Sort.Direction.DESC, "created", "_id")),
+            Aggregation.limit(pageSize + 1),
+            summaryProjection());
+
+        List<PostSummary> summaries = new ArrayList<>(
+            mongoTemplate.aggregate(aggregation, PostSummary.class).getMappedResults());
+
+        String nextCursor = null;
+        if (summaries.size() > pageSize) {
+            summaries = summaries.subList(0, pageSize);
+            PostSummary last = summaries.get(pageSize - 1);
+            nextCursor = new PageCursor(last.getCreated().getTime(), last.getId()).encode();
+        }
+        return new CursorPage<>(summaries, nextCursor);
+    }
+
+    // Shape of a PostSummary, shared with the timeline reads
+    static ProjectionOperation summaryProjection() {
+        return Aggregation.project("title", "content", "userId", "userEmail", "userPhotoURL", "likes", "commentCount", "created")
+            .and(ArrayOperators.Size.lengthOfArray(
+                ConditionalOperators.ifNull("video").then(Collections.emptyList())))
+            .as("videoCount");
     }
 
     public List<Post> getPostsByPostUId(String postUId) {
         return postRepository.findByUserId(postUId);
     }
 
+    // Creation times are set here, not taken from the client: feeds, timelines and their
+    // cursors order by them
     public Post addPost(Post post) {
-        return postRepository.save(post);
+        post.setCreated(new Date());
+        Post savedPost = postRepository.save(post);
+        timelineService.fanOut(savedPost);
+        return savedPost;
     }
 
+    // Sets only the editable fields, so likes and comment counts changed concurrently are kept.
+    // Returns null if the post does not exist.
     public Post updatePost(String postId, Post post) {
-        Optional<Post> existingPost = postRepository.findById(postId);
-        if (existingPost.isPresent()) {
-            Post updatedPost = existingPost.get();
-            updatedPost.setTitle(post.getTitle());
-            updatedPost.setContent(post.getContent());
-            updatedPost.setVideo(post.getVideo());
-            return postRepository.save(updatedPost);
-        }
-        return null;
+        Update update = new Update()
+            .set("title", post.getTitle())
+            .set("content", post.getContent())
+            .set("video", post.getVideo());
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(postId)), update,
+            FindAndModifyOptions.options().returnNew(true), Post.class);
     }
 
     public void deletePost(String id) {
         postRepository.deleteById(id);
+        postCommentRepository.deleteByPostId(id);
+    }
+
+    public Integer likePost(String postId) {
+        return incrementLikes(postId, 1);
+    }
+
+    public Integer unlikePost(String postId) {
+        Integer likes = incrementLikes(postId, -1);
+        if (likes == null && postRepository.existsById(postId)) {
+            return 0; // already at zero
+        }
+        return likes;
     }
 
-    public Post likePost(String postId) {
-        Optional<Post> post = postRepository.findById(postId);
-        if (post.isPresent()) {
-            Post updatedPost = post.get();
-            updatedPost.setLikes(updatedPost.getLikes() + 1);
-            return postRepository.save(updatedPost);
+    // Applies the change with a server-side $inc and reads back only the new counter, so
+    // concurrent likes never overwrite each other and the post document is not rewritten.
+    // Returns null if the post does not exist (or, for decrements, has no likes left).
+    private Integer incrementLikes(String postId, int delta) {
+        Query query = new Query(Criteria.where("_id").is(postId));
+        if (delta < 0) {
+            query.addCriteria(Criteria.where("likes").gt(0));
         }
-        return null;
+        query.fields().include("likes");
+
+        Post updated = mongoTemplate.findAndModify(query, new Update().inc("likes", delta),
+            FindAndModifyOptions.options().returnNew(true), Post.class);
+        return updated != null ? updated.getLikes() : null;
     }
 
     public void deleteAllPosts() {
         postRepository.deleteAll();
+        postCommentRepository.deleteAll();
     }
 
-    public Post addComment(String postId, CommentModel comment) {
-        Optional<Post> post = postRepository.findById(postId);
-        if (post.isPresent()) {
-            Post existingPost = post.get();
-            existingPost.getComments().add(comment);
-            return postRepository.save(existingPost);
+    /**
+     * Stores the comment in post_comments and bumps the post's comment count. Returns null if
+     * the post does not exist.
+     */
+    public PostCommentModel addComment(String postId, PostCommentModel comment) {
+        if (!adjustCommentCount(postId, 1)) {
+            return null;
         }
-        return null;
+        comment.setId(null);
+        comment.setPostId(postId);
+        comment.setCreatedAt(LocalDateTime.now());
+        return postCommentRepository.insert(comment);
     }
 
-    public Post removeComment(String postId, String commentId) {
-        Optional<Post> post = postRepository.findById(postId);
-        if (post.isPresent()) {
-            Post existingPost = post.get();
-            existingPost.getComments().removeIf(comment -> comment.getId().equals(commentId));
-            return postRepository.save(existingPost);
+    public boolean removeComment(String postId, String commentId) {
+        Query query = new Query(Criteria.where("_id").is(commentId).and("postId").is(postId));
+        if (mongoTemplate.remove(query, PostCommentModel.class).getDeletedCount() == 0) {
+            return false;
         }
-        return null;
+        adjustCommentCount(postId, -1);
+        return true;
+    }
+
+    // Newest-first keyset page over the postId+createdAt index
+    public CursorPage<PostCommentModel> getComments(String postId, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        Criteria criteria = Criteria.where("postId").is(postId);
+        if (cursor != null && !cursor.isEmpty()) {
+            PageCursor position = PageCursor.decode(cursor);
+            LocalDateTime createdAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(position.getTimestamp()), ZoneId.systemDefault());
+            criteria = criteria.orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                Criteria.where("createdAt").is(createdAt).and("_id").lt(new ObjectId(position.getId())));
+        }
+
+        Query query = new Query(criteria)
+            .with(Sort.by(Sort.Direction.DESC, "createdAt", "_id"))
+            .limit(pageSize + 1);
+        List<PostCommentModel> comments = mongoTemplate.find(query, PostCommentModel.class);
+
+        String nextCursor = null;
+        if (comments.size() > pageSize) {
+            comments = comments.subList(0, pageSize);
+            PostCommentModel last = comments.get(pageSize - 1);
+            nextCursor = new PageCursor(
+                last.getCreatedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                last.getId()).encode();
+        }
+        return new CursorPage<>(comments, nextCursor);
+    }
+
+    private boolean adjustCommentCount(String postId, int delta) {
+        Query query = new Query(Criteria.where("_id").is(postId));
+        return mongoTemplate.updateFirst(query, new Update().inc("commentCount", delta), Post.class)
+            .getMatchedCount() > 0;
     }
 } 
\ No newline at end of file
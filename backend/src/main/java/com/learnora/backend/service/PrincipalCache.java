@@ -0,0 +1,89 @@
+package com.learnora.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded cache of authenticated principals keyed by the raw JWT, so repeat requests with the
+ * same token skip both signature verification and the user lookup. An entry never outlives the
+ * token it was created for.
+ */
+@Component
+public class PrincipalCache implements MeterBinder {
+
+    private final Cache<String, CachedPrincipal> cache;
+
+    public PrincipalCache(@Value("${learnora.auth.principal-cache.max-size:10000}") long maxSize,
+                          @Value("${learnora.auth.principal-cache.ttl-seconds:300}") long ttlSeconds) {
+        long ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, CachedPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String token, CachedPrincipal principal, long currentTime) {
+                        long untilTokenExpiry = Duration.ofMillis(
+                                principal.expiresAt.getTime() - System.currentTimeMillis()).toNanos();
+                        return Math.max(0, Math.min(ttlNanos, untilTokenExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, CachedPrincipal principal, long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, principal, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, CachedPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Same tag keys as the caches Spring Boot binds, which Prometheus requires for one metric name
+        CaffeineCacheMetrics.monitor(registry, cache, "principals",
+                Tags.of("cache.manager", "principalCache", "name", "principals"));
+    }
+
+    public UserDetails get(String token) {
+        CachedPrincipal principal = cache.getIfPresent(token);
+        return principal != null ? principal.userDetails : null;
+    }
+
+    public void put(String token, UserDetails userDetails, Date expiresAt) {
+        if (expiresAt == null) {
+            return;
+        }
+        cache.put(token, new CachedPrincipal(userDetails, expiresAt));
+    }
+
+    // Called when credentials change or the account is removed so the next request reloads
+    // the user from the database.
+    public void invalidateUser(String email) {
+        cache.asMap().values().removeIf(principal -> principal.userDetails.getUsername().equals(email));
+    }
+
+    public static class CachedPrincipal {
+        private final UserDetails userDetails;
+        private final Date expiresAt;
+
+        CachedPrincipal(UserDetails userDetails, Date expiresAt) {
+            this.userDetails = userDetails;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
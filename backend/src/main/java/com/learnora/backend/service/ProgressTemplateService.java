@@ -3,6 +3,7 @@ package com.learnora.backend.service;
 import com.learnora.backend.model.ProgressTemplate;
 import com.learnora.backend.repository.ProgressTemplateRepository;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.Date;
@@ -13,6 +14,7 @@ import org.slf4j.LoggerFactory;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "learnora.service", histogram = true)
 public class ProgressTemplateService {
     private static final Logger logger = LoggerFactory.getLogger(ProgressTemplateService.class);
 
@@ -55,7 +57,7 @@ public class ProgressTemplateService {
         return progressTemplateRepository.findByUserIdAndCourseId(userId, courseId);
     }
 
-    private void calculatePercentages(ProgressTemplate template) {
+    static void calculatePercentages(ProgressTemplate template) {
         String calculationMethod = template.getCalculationMethod();
         
         if ("byTopics".equals(calculationMethod)) {
@@ -1,32 +1,59 @@
 package com.learnora.backend.service;
 
+import com.learnora.backend.model.ReactionCounterModel;
 import com.learnora.backend.model.ReactionModel;
+import com.learnora.backend.repository.ReactionCounterRepository;
 import com.learnora.backend.repository.ReactionRepository;
-import com.learnora.backend.repository.LearningPlanRepository;
+import io.micrometer.core.annotation.Timed;
+import org.bson.Document;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ComparisonOperators;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.stream.Stream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.Optional;
 
 @Service
+@Timed(value = "learnora.service", histogram = true)
 public class ReactionService {
     private static final Logger logger = LoggerFactory.getLogger(ReactionService.class);
 
+    private static final int REPAIR_BATCH_SIZE = 500;
+    private static final int MAX_SUMMARY_BATCH = 100;
+
     @Autowired
     private ReactionRepository reactionRepository;
 
     @Autowired
-    private LearningPlanRepository learningPlanRepository;
+    private ReactionCounterRepository reactionCounterRepository;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private LearningPlanService learningPlanService;
 
     @Autowired
     private NotificationService notificationService;
 
     public Map<String, Object> addReaction(String userId, String contentId, String contentType, String reactionType, String username) {
-        logger.info("Adding reaction: userId={}, contentId={}, contentType={}, reactionType={}, username={}", 
+        logger.debug("Adding reaction: userId={}, contentId={}, contentType={}, reactionType={}, username={}", 
             userId, contentId, contentType, reactionType, username);
 
         // Check if user already has a reaction
@@ -37,12 +64,14 @@ public class ReactionService {
             
             // If clicking the same reaction type, remove it
             if (reaction.getReactionType().equals(reactionType)) {
-                reactionRepository.delete(reaction);
-                logger.info("Removed existing reaction of same type");
+                if (deleteReaction(reaction)) {
+                    adjustCounters(contentId, contentType, reactionType, -1);
+                }
+                logger.debug("Removed existing reaction of same type");
                 
                 try {
                     if (contentType.equals("COURSE")) {
-                        var plan = learningPlanRepository.findById(contentId)
+                        var plan = learningPlanService.getPlanOwnerInfo(contentId)
                             .orElseThrow(() -> new RuntimeException("Course not found"));
                         
                         if (!plan.getUserEmail().equals(userId)) {
@@ -56,9 +85,10 @@ public class ReactionService {
                                 "REACTION_REMOVED",
                                 message,
                                 contentId,
-                                contentId
+                                contentId,
+                                reactionCoalesceKey(userId, contentId, contentType)
                             );
-                            logger.info("Created notification for reaction removal");
+                            logger.debug("Created notification for reaction removal");
                         }
                     }
                 } catch (Exception e) {
@@ -66,13 +96,15 @@ public class ReactionService {
                 }
             } else {
                 // If different reaction type, update the existing reaction
-                reaction.setReactionType(reactionType);
-                reactionRepository.save(reaction);
-                logger.info("Updated existing reaction to new type");
+                if (changeReactionType(reaction, reactionType)) {
+                    adjustCounters(contentId, contentType, reaction.getReactionType(), -1);
+                    adjustCounters(contentId, contentType, reactionType, 1);
+                }
+                logger.debug("Updated existing reaction to new type");
                 
                 try {
                     if (contentType.equals("COURSE")) {
-                        var plan = learningPlanRepository.findById(contentId)
+                        var plan = learningPlanService.getPlanOwnerInfo(contentId)
                             .orElseThrow(() -> new RuntimeException("Course not found"));
                         
                         if (!plan.getUserEmail().equals(userId)) {
@@ -86,9 +118,10 @@ public class ReactionService {
                                 "REACTION_CHANGED",
                                 message,
                                 contentId,
-                                contentId
+                                contentId,
+                                reactionCoalesceKey(userId, contentId, contentType)
                             );
-                            logger.info("Created notification for reaction change");
+                            logger.debug("Created notification for reaction change");
                         }
                     }
                 } catch (Exception e) {
@@ -98,12 +131,18 @@ public class ReactionService {
         } else {
             // Create new reaction if user doesn't have one
             ReactionModel newReaction = new ReactionModel(userId, contentId, contentType, reactionType);
-            reactionRepository.save(newReaction);
-            logger.info("Created new reaction");
+            try {
+                reactionRepository.insert(newReaction);
+                adjustCounters(contentId, contentType, reactionType, 1);
+            } catch (DuplicateKeyException e) {
+                // A concurrent request from the same user already reacted; its counter update stands
+                logger.debug("Reaction already recorded by a concurrent request");
+            }
+            logger.debug("Created new reaction");
             
             try {
                 if (contentType.equals("COURSE")) {
-                    var plan = learningPlanRepository.findById(contentId)
+                    var plan = learningPlanService.getPlanOwnerInfo(contentId)
                         .orElseThrow(() -> new RuntimeException("Course not found"));
                     
                     if (!plan.getUserEmail().equals(userId)) {
@@ -117,9 +156,10 @@ public class ReactionService {
                             "COURSE_REACTION",
                             message,
                             contentId,
-                            contentId
+                            contentId,
+                            reactionCoalesceKey(userId, contentId, contentType)
                         );
-                        logger.info("Created notification for new reaction");
+                        logger.debug("Created notification for new reaction");
                     }
                 }
             } catch (Exception e) {
@@ -131,15 +171,148 @@ public class ReactionService {
     }
 
     public Map<String, Object> getReactionCounts(String contentId, String contentType) {
-        long likes = reactionRepository.countByContentAndType(contentId, contentType, "LIKE");
-        long dislikes = reactionRepository.countByContentAndType(contentId, contentType, "DISLIKE");
-        
+        return reactionCounterRepository.findById(ReactionCounterModel.idFor(contentId, contentType))
+            .map(ReactionService::toCounts)
+            .orElseGet(() -> toCounts(null));
+    }
+
+    // Counts plus the caller's own reaction for a whole list of content items in two queries,
+    // keyed by contentId. Used by card lists instead of one request per card.
+    public Map<String, Map<String, Object>> getReactionSummaries(List<String> requestedIds, String contentType, String userId) {
+        List<String> contentIds = summaryBatch(requestedIds);
+        List<String> counterIds = contentIds.stream()
+            .map(contentId -> ReactionCounterModel.idFor(contentId, contentType))
+            .toList();
+        Map<String, ReactionCounterModel> counters = new HashMap<>();
+        for (ReactionCounterModel counter : reactionCounterRepository.findAllById(counterIds)) {
+            counters.put(counter.getContentId(), counter);
+        }
+
+        Map<String, String> userReactions = new HashMap<>();
+        if (userId != null && !userId.isEmpty()) {
+            for (ReactionModel reaction : mongoTemplate.find(userReactionsQuery(userId, contentIds, contentType), ReactionModel.class)) {
+                userReactions.put(reaction.getContentId(), reaction.getReactionType());
+            }
+        }
+
+        return toSummaries(contentIds, counters, userReactions);
+    }
+
+    // Like the page sizes elsewhere, the batch is capped rather than rejected
+    static List<String> summaryBatch(List<String> contentIds) {
+        return contentIds.stream().distinct().limit(MAX_SUMMARY_BATCH).toList();
+    }
+
+    // The caller's own reactions among the given items, contentId and reactionType only
+    static Query userReactionsQuery(String userId, List<String> contentIds, String contentType) {
+        Query query = new Query(Criteria.where("userId").is(userId)
+            .and("contentId").in(contentIds)
+            .and("contentType").is(contentType));
+        query.fields().include("contentId", "reactionType");
+        return query;
+    }
+
+    static Map<String, Map<String, Object>> toSummaries(List<String> contentIds,
+            Map<String, ReactionCounterModel> counters, Map<String, String> userReactions) {
+        Map<String, Map<String, Object>> summaries = new LinkedHashMap<>();
+        for (String contentId : contentIds) {
+            Map<String, Object> summary = toCounts(counters.get(contentId));
+            summary.put("userReaction", userReactions.get(contentId));
+            summaries.put(contentId, summary);
+        }
+        return summaries;
+    }
+
+    /**
+     * Recomputes every counter from the raw reactions and zeroes counters whose content has
+     * none left. Runs on {@code learnora.reactions.repair-cron} (disabled by default). Reactions
+     * written while the job runs may be off by one until the next run; counters they touch carry
+     * a newer {@code reconciledAt} and are never cleared by it.
+     */
+    @Scheduled(cron = "${learnora.reactions.repair-cron:-}")
+    public void reconcileCounters() {
+        Date runStartedAt = new Date();
+        TypedAggregation<ReactionModel> aggregation = Aggregation.newAggregation(ReactionModel.class,
+            Aggregation.group("contentType", "contentId")
+                .sum(ConditionalOperators.when(ComparisonOperators.valueOf("reactionType").equalToValue("LIKE"))
+                    .then(1).otherwise(0)).as("likes")
+                .sum(ConditionalOperators.when(ComparisonOperators.valueOf("reactionType").equalToValue("DISLIKE"))
+                    .then(1).otherwise(0)).as("dislikes"));
+
+        int reconciled = 0;
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReactionCounterModel.class);
+        try (Stream<Document> totals = mongoTemplate.aggregateStream(aggregation, Document.class)) {
+            for (Document total : (Iterable<Document>) totals::iterator) {
+                Document key = total.get("_id", Document.class);
+                String contentId = key.getString("contentId");
+                String contentType = key.getString("contentType");
+                bulk.upsert(
+                    new Query(Criteria.where("_id").is(ReactionCounterModel.idFor(contentId, contentType))),
+                    new Update()
+                        .set("contentId", contentId)
+                        .set("contentType", contentType)
+                        .set("likes", ((Number) total.get("likes")).longValue())
+                        .set("dislikes", ((Number) total.get("dislikes")).longValue())
+                        .set("reconciledAt", runStartedAt));
+                if (++reconciled % REPAIR_BATCH_SIZE == 0) {
+                    bulk.execute();
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ReactionCounterModel.class);
+                }
+            }
+        }
+        if (reconciled % REPAIR_BATCH_SIZE != 0) {
+            bulk.execute();
+        }
+
+        long cleared = mongoTemplate.updateMulti(
+            new Query(new Criteria().orOperator(
+                Criteria.where("reconciledAt").lt(runStartedAt),
+                Criteria.where("reconciledAt").exists(false))),
+            new Update().set("likes", 0L).set("dislikes", 0L).set("reconciledAt", runStartedAt),
+            ReactionCounterModel.class).getModifiedCount();
+        logger.info("Reconciled {} reaction counters, cleared {}", reconciled, cleared);
+    }
+
+    // Rapid like/unlike toggles by one user on one item only notify the owner of the final state
+    static String reactionCoalesceKey(String userId, String contentId, String contentType) {
+        return "reaction:" + contentType + ":" + contentId + ":" + userId;
+    }
+
+    static Map<String, Object> toCounts(ReactionCounterModel counter) {
         Map<String, Object> response = new HashMap<>();
-        response.put("likes", likes);
-        response.put("dislikes", dislikes);
+        response.put("likes", counter != null ? Math.max(0, counter.getLikes()) : 0L);
+        response.put("dislikes", counter != null ? Math.max(0, counter.getDislikes()) : 0L);
         return response;
     }
 
+    // $inc on the counter document, created on first use. Stamping reconciledAt keeps a running
+    // repair job from clearing a counter created or changed after the job started.
+    private void adjustCounters(String contentId, String contentType, String reactionType, int delta) {
+        String field = "LIKE".equals(reactionType) ? "likes" : "dislikes";
+        mongoTemplate.upsert(
+            new Query(Criteria.where("_id").is(ReactionCounterModel.idFor(contentId, contentType))),
+            new Update().inc(field, delta)
+                .set("reconciledAt", new Date())
+                .setOnInsert("contentId", contentId)
+                .setOnInsert("contentType", contentType),
+            ReactionCounterModel.class);
+    }
+
+    // True only for the request that actually removed the reaction, so concurrent removals
+    // decrement the counter once
+    private boolean deleteReaction(ReactionModel reaction) {
+        return mongoTemplate.remove(
+            new Query(Criteria.where("_id").is(reaction.getId())), ReactionModel.class).getDeletedCount() == 1;
+    }
+
+    // Switches the type only if it is still the one we read
+    private boolean changeReactionType(ReactionModel reaction, String reactionType) {
+        return mongoTemplate.updateFirst(
+            new Query(Criteria.where("_id").is(reaction.getId()).and("reactionType").is(reaction.getReactionType())),
+            Update.update("reactionType", reactionType),
+            ReactionModel.class).getModifiedCount() == 1;
+    }
+
     public String getUserReaction(String userId, String contentId, String contentType) {
         return reactionRepository.findByUserAndContent(userId, contentId, contentType)
             .map(ReactionModel::getReactionType)
@@ -147,7 +320,7 @@ public class ReactionService {
     }
 
     public void removeReaction(String userId, String contentId, String contentType, String username) {
-        logger.info("Removing reaction: userId={}, contentId={}, contentType={}, username={}", 
+        logger.debug("Removing reaction: userId={}, contentId={}, contentType={}, username={}", 
             userId, contentId, contentType, username);
 
         ReactionModel reaction = reactionRepository.findByUserAndContent(userId, contentId, contentType)
@@ -156,7 +329,7 @@ public class ReactionService {
         if (reaction != null) {
             try {
                 if (contentType.equals("COURSE")) {
-                    var plan = learningPlanRepository.findById(contentId)
+                    var plan = learningPlanService.getPlanOwnerInfo(contentId)
                         .orElseThrow(() -> new RuntimeException("Course not found"));
                     
                     if (!plan.getUserEmail().equals(userId)) {
@@ -170,17 +343,20 @@ public class ReactionService {
                             "REACTION_REMOVED",
                             message,
                             contentId,
-                            contentId
+                            contentId,
+                            reactionCoalesceKey(userId, contentId, contentType)
                         );
-                        logger.info("Created notification for reaction removal");
+                        logger.debug("Created notification for reaction removal");
                     }
                 }
             } catch (Exception e) {
                 logger.error("Failed to create notification for reaction removal: {}", e.getMessage());
             }
 
-            reactionRepository.delete(reaction);
-            logger.info("Reaction deleted successfully");
+            if (deleteReaction(reaction)) {
+                adjustCounters(contentId, contentType, reaction.getReactionType(), -1);
+            }
+            logger.debug("Reaction deleted successfully");
         }
     }
 }
\ No newline at end of file
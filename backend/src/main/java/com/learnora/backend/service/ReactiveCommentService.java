@@ -0,0 +1,220 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.dto.CursorPage;
+import com.learnora.backend.dto.PlanOwnerInfo;
+import com.learnora.backend.model.CommentModel;
+import com.learnora.backend.model.UserModel;
+import com.learnora.backend.repository.ReactiveCommentRepository;
+import com.learnora.backend.repository.ReactiveUserRepository;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link CommentService} for the "reactive" profile: same rules and
+ * responses, with every Mongo call on the reactive driver so no thread waits on the database.
+ * Query building and paging are shared with CommentService.
+ *
+ * Not {@code @Timed}: the aspect would only time assembling the Mono. The WebFlux request
+ * metrics cover these calls.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCommentService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCommentService.class);
+
+    @Autowired
+    private ReactiveCommentRepository commentRepository;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private ReactiveLearningPlanService learningPlanService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    public Mono<CommentModel> createComment(CommentModel comment) {
+        try {
+            CommentService.validateNewComment(comment);
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+        comment.setCreatedAt(LocalDateTime.now());
+        boolean isReply = comment.getParentId() != null && !comment.getParentId().isEmpty();
+
+        // The user, plan and parent lookups do not depend on each other
+        Mono<Optional<UserModel>> user = userRepository.findByEmail(comment.getUserId())
+            .map(Optional::of).defaultIfEmpty(Optional.empty());
+        Mono<Optional<PlanOwnerInfo>> plan = learningPlanService.getPlanOwnerInfo(comment.getPostId())
+            .map(Optional::of).defaultIfEmpty(Optional.empty());
+        Mono<Optional<CommentModel>> parent = isReply
+            ? commentRepository.findById(comment.getParentId()).map(Optional::of).defaultIfEmpty(Optional.empty())
+            : Mono.just(Optional.empty());
+
+        return Mono.zip(user, plan, parent).flatMap(lookups -> {
+            Optional<UserModel> author = lookups.getT1();
+            if (author.isEmpty()) {
+                return Mono.error(new Exception("User not found"));
+            }
+            String expectedUsername = author.get().getFirstName() + " " + author.get().getLastName();
+            if (!comment.getUsername().equals(expectedUsername)) {
+                return Mono.error(new Exception("Username does not match user"));
+            }
+            Optional<CommentModel> parentComment = lookups.getT3();
+            if (isReply && parentComment.isEmpty()) {
+                return Mono.error(new Exception("Parent comment not found"));
+            }
+            if (lookups.getT2().isEmpty()) {
+                return Mono.error(new Exception("Learning plan not found"));
+            }
+            PlanOwnerInfo owner = lookups.getT2().get();
+
+            return commentRepository.save(comment)
+                .flatMap(saved -> Mono.fromRunnable(() -> notifyCommented(saved, parentComment.orElse(null), owner))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .thenReturn(saved));
+        });
+    }
+
+    // Blocks when the dispatcher's queue is full, as it then writes on the calling thread, so it
+    // is run on boundedElastic
+    private void notifyCommented(CommentModel comment, CommentModel parentComment, PlanOwnerInfo plan) {
+        try {
+            if (parentComment != null && !parentComment.getUserId().equals(comment.getUserId())) {
+                String message = String.format("%s replied to your comment", comment.getUsername());
+                notificationService.createNotification(
+                    parentComment.getUserId(),
+                    "COMMENT_REPLY",
+                    message,
+                    comment.getId(),
+                    comment.getPostId()
+                );
+            }
+
+            if (!plan.getUserEmail().equals(comment.getUserId())) {
+                notificationService.createNotification(
+                    plan.getUserEmail(),
+                    "COURSE_COMMENT",
+                    CommentService.courseCommentMessage(comment, plan),
+                    comment.getId(),
+                    plan.getId()
+                );
+            }
+        } catch (Exception e) {
+            logger.error("Failed to create notifications: {}", e.getMessage(), e);
+        }
+    }
+
+    public Mono<List<CommentModel>> getCommentsByPostId(String postId, String userEmail) {
+        if (postId == null || postId.isEmpty()) {
+            return Mono.error(new Exception("Post ID is required"));
+        }
+
+        return requirePlan(postId).flatMap(plan -> {
+            boolean isCourseOwner = plan.getUserEmail().equals(userEmail);
+            return commentRepository.findByPostId(postId)
+                .filter(comment -> isCourseOwner || !comment.isHidden())
+                .collectList()
+                .map(CommentService::buildCommentTree);
+        });
+    }
+
+    public Mono<CursorPage<CommentModel>> getTopLevelComments(String postId, String userEmail, String cursor, int limit) {
+        if (postId == null || postId.isEmpty()) {
+            return Mono.error(new Exception("Post ID is required"));
+        }
+
+        return requirePlan(postId).flatMap(plan -> {
+            boolean isCourseOwner = plan.getUserEmail().equals(userEmail);
+            Criteria criteria = Criteria.where("postId").is(postId).and("parentId").in(null, "");
+            return pageComments(criteria, isCourseOwner, cursor, limit);
+        });
+    }
+
+    public Mono<CursorPage<CommentModel>> getReplies(String commentId, String userEmail, String cursor, int limit) {
+        return requireComment(commentId).flatMap(parent -> requirePlan(parent.getPostId()).flatMap(plan -> {
+            boolean isCourseOwner = plan.getUserEmail().equals(userEmail);
+            Criteria criteria = Criteria.where("postId").is(parent.getPostId()).and("parentId").is(commentId);
+            return pageComments(criteria, isCourseOwner, cursor, limit);
+        }));
+    }
+
+    private Mono<CursorPage<CommentModel>> pageComments(Criteria criteria, boolean includeHidden, String cursor, int limit) {
+        return reactiveMongoTemplate.find(CommentService.pageQuery(criteria, includeHidden, cursor, limit), CommentModel.class)
+            .collectList()
+            .flatMap(comments -> countReplies(comments, includeHidden)
+                .map(replyCounts -> CommentService.toPage(comments, limit, replyCounts)));
+    }
+
+    private Mono<Map<String, Long>> countReplies(List<CommentModel> comments, boolean includeHidden) {
+        if (comments.isEmpty()) {
+            return Mono.just(Collections.emptyMap());
+        }
+        return reactiveMongoTemplate.aggregate(CommentService.replyCountAggregation(comments, includeHidden), Document.class)
+            .collectMap(result -> result.getString("_id"), result -> ((Number) result.get("count")).longValue());
+    }
+
+    public Mono<CommentModel> updateComment(String id, CommentModel updates, String userEmail) {
+        return requireComment(id).flatMap(comment -> {
+            if (!comment.getUserId().equals(userEmail)) {
+                return Mono.error(new Exception("Unauthorized: Only the comment owner can update it"));
+            }
+            if (updates.getText() == null || updates.getText().isEmpty()) {
+                return Mono.error(new Exception("Comment text is required"));
+            }
+
+            comment.setText(updates.getText());
+            return commentRepository.save(comment);
+        });
+    }
+
+    public Mono<Void> deleteComment(String id, String userId) {
+        return requireComment(id).flatMap(comment -> requirePlan(comment.getPostId()).flatMap(plan -> {
+            if (!comment.getUserId().equals(userId) && !plan.getUserEmail().equals(userId)) {
+                return Mono.error(new Exception("Unauthorized: Only the comment owner or course owner can delete it"));
+            }
+
+            return commentRepository.deleteAll(commentRepository.findByPostIdAndParentId(comment.getPostId(), id))
+                .then(commentRepository.deleteById(id));
+        }));
+    }
+
+    public Mono<Void> toggleCommentVisibility(String id, String userId) {
+        return requireComment(id).flatMap(comment -> requirePlan(comment.getPostId()).flatMap(plan -> {
+            if (!plan.getUserEmail().equals(userId)) {
+                return Mono.error(new Exception("Unauthorized: Only the course owner can hide/unhide comments"));
+            }
+
+            comment.setHidden(!comment.isHidden());
+            return commentRepository.save(comment).then();
+        }));
+    }
+
+    private Mono<CommentModel> requireComment(String id) {
+        return commentRepository.findById(id)
+            .switchIfEmpty(Mono.error(() -> new Exception("Comment not found")));
+    }
+
+    private Mono<PlanOwnerInfo> requirePlan(String planId) {
+        return learningPlanService.getPlanOwnerInfo(planId)
+            .switchIfEmpty(Mono.error(() -> new Exception("Learning plan not found")));
+    }
+}
@@ -0,0 +1,49 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.config.CacheConfig;
+import com.learnora.backend.dto.PlanOwnerInfo;
+import com.learnora.backend.model.LearningPlanModel;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking plan owner lookup for the reactive comment and reaction services, reading through
+ * the plan owner cache. The cache is per process and plans are only updated and deleted on the
+ * servlet instances, so nothing ever evicts entries here: application-reactive.properties keeps
+ * their TTL short, which bounds how long a deleted plan still accepts comments and reactions.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveLearningPlanService {
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public Mono<PlanOwnerInfo> getPlanOwnerInfo(String planId) {
+        Cache cache = cacheManager.getCache(CacheConfig.PLAN_OWNERS);
+        Cache.ValueWrapper cached = cache != null ? cache.get(planId) : null;
+        if (cached != null) {
+            return Mono.justOrEmpty((PlanOwnerInfo) cached.get());
+        }
+
+        Query query = new Query(Criteria.where("_id").is(planId));
+        query.fields().include("title", "userEmail");
+        return reactiveMongoTemplate.findOne(query, LearningPlanModel.class)
+            .map(plan -> new PlanOwnerInfo(plan.getId(), plan.getTitle(), plan.getUserEmail()))
+            .doOnNext(owner -> {
+                if (cache != null) {
+                    cache.put(planId, owner);
+                }
+            });
+    }
+}
@@ -0,0 +1,201 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.dto.PlanOwnerInfo;
+import com.learnora.backend.model.ReactionCounterModel;
+import com.learnora.backend.model.ReactionModel;
+import com.learnora.backend.repository.ReactiveReactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Reactive counterpart of {@link ReactionService} for the "reactive" profile. Reactions and
+ * counters are written with the same conditional updates, so concurrent toggles by one user
+ * still move a counter at most once. The counter repair job stays with ReactionService.
+ *
+ * Not {@code @Timed}: the aspect would only time assembling the Mono. The WebFlux request
+ * metrics cover these calls.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveReactionService {
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveReactionService.class);
+
+    @Autowired
+    private ReactiveReactionRepository reactionRepository;
+
+    @Autowired
+    private ReactiveMongoTemplate reactiveMongoTemplate;
+
+    @Autowired
+    private ReactiveLearningPlanService learningPlanService;
+
+    @Autowired
+    private NotificationService notificationService;
+
+    public Mono<Map<String, Object>> addReaction(String userId, String contentId, String contentType, String reactionType, String username) {
+        logger.debug("Adding reaction: userId={}, contentId={}, contentType={}, reactionType={}, username={}",
+            userId, contentId, contentType, reactionType, username);
+
+        return reactionRepository.findByUserAndContent(userId, contentId, contentType)
+            .map(Optional::of)
+            .defaultIfEmpty(Optional.empty())
+            .flatMap(existing -> {
+                if (existing.isEmpty()) {
+                    return createReaction(userId, contentId, contentType, reactionType, username);
+                }
+                ReactionModel reaction = existing.get();
+                // Clicking the same reaction type again removes it
+                if (reaction.getReactionType().equals(reactionType)) {
+                    return removeExisting(reaction, username);
+                }
+                return changeReaction(reaction, reactionType, username);
+            })
+            .then(getReactionCounts(contentId, contentType));
+    }
+
+    private Mono<Void> createReaction(String userId, String contentId, String contentType, String reactionType, String username) {
+        return reactionRepository.insert(new ReactionModel(userId, contentId, contentType, reactionType))
+            .then(adjustCounters(contentId, contentType, reactionType, 1))
+            // A concurrent request from the same user already reacted; its counter update stands
+            .onErrorResume(DuplicateKeyException.class, e -> {
+                logger.debug("Reaction already recorded by a concurrent request");
+                return Mono.empty();
+            })
+            .then(notifyCourseOwner(userId, contentId, contentType, "COURSE_REACTION",
+                plan -> String.format("%s %s your course '%s'",
+                    username,
+                    reactionType.equals("LIKE") ? "liked" : "disliked",
+                    plan.getTitle())));
+    }
+
+    private Mono<Void> changeReaction(ReactionModel reaction, String reactionType, String username) {
+        String contentId = reaction.getContentId();
+        String contentType = reaction.getContentType();
+        // Switches the type only if it is still the one we read
+        Mono<Boolean> changed = reactiveMongoTemplate.updateFirst(
+                new Query(Criteria.where("_id").is(reaction.getId()).and("reactionType").is(reaction.getReactionType())),
+                Update.update("reactionType", reactionType),
+                ReactionModel.class)
+            .map(result -> result.getModifiedCount() == 1);
+
+        return changed
+            .flatMap(applied -> applied
+                ? adjustCounters(contentId, contentType, reaction.getReactionType(), -1)
+                    .then(adjustCounters(contentId, contentType, reactionType, 1))
+                : Mono.empty())
+            .then(notifyCourseOwner(reaction.getUserId(), contentId, contentType, "REACTION_CHANGED",
+                plan -> String.format("%s changed their reaction to %s on your course '%s'",
+                    username,
+                    reactionType.equals("LIKE") ? "like" : "dislike",
+                    plan.getTitle())));
+    }
+
+    private Mono<Void> removeExisting(ReactionModel reaction, String username) {
+        String contentId = reaction.getContentId();
+        String contentType = reaction.getContentType();
+        // Only the request that actually removed the reaction decrements the counter
+        return reactiveMongoTemplate.remove(new Query(Criteria.where("_id").is(reaction.getId())), ReactionModel.class)
+            .flatMap(result -> result.getDeletedCount() == 1
+                ? adjustCounters(contentId, contentType, reaction.getReactionType(), -1)
+                : Mono.empty())
+            .then(notifyCourseOwner(reaction.getUserId(), contentId, contentType, "REACTION_REMOVED",
+                plan -> String.format("%s removed their %s from your course '%s'",
+                    username,
+                    reaction.getReactionType().equals("LIKE") ? "like" : "dislike",
+                    plan.getTitle())));
+    }
+
+    // $inc on the counter document, created on first use
+    private Mono<Void> adjustCounters(String contentId, String contentType, String reactionType, int delta) {
+        String field = "LIKE".equals(reactionType) ? "likes" : "dislikes";
+        return reactiveMongoTemplate.upsert(
+                new Query(Criteria.where("_id").is(ReactionCounterModel.idFor(contentId, contentType))),
+                new Update().inc(field, delta)
+                    .set("reconciledAt", new Date())
+                    .setOnInsert("contentId", contentId)
+                    .setOnInsert("contentType", contentType),
+                ReactionCounterModel.class)
+            .then();
+    }
+
+    // Failures are logged and never fail the reaction itself. Runs on boundedElastic: the
+    // dispatcher writes on the calling thread when its queue is full.
+    private Mono<Void> notifyCourseOwner(String userId, String contentId, String contentType, String type,
+                                         Function<PlanOwnerInfo, String> message) {
+        if (!contentType.equals("COURSE")) {
+            return Mono.empty();
+        }
+        return learningPlanService.getPlanOwnerInfo(contentId)
+            .switchIfEmpty(Mono.error(() -> new RuntimeException("Course not found")))
+            .filter(plan -> !plan.getUserEmail().equals(userId))
+            .flatMap(plan -> Mono.fromCallable(() -> notificationService.createNotification(
+                plan.getUserEmail(),
+                type,
+                message.apply(plan),
+                contentId,
+                contentId,
+                ReactionService.reactionCoalesceKey(userId, contentId, contentType)))
+                .subscribeOn(Schedulers.boundedElastic()))
+            .doOnNext(notification -> logger.debug("Created {} notification", type))
+            .onErrorResume(e -> {
+                logger.error("Failed to create {} notification: {}", type, e.getMessage());
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    public Mono<Map<String, Object>> getReactionCounts(String contentId, String contentType) {
+        return reactiveMongoTemplate.findById(ReactionCounterModel.idFor(contentId, contentType), ReactionCounterModel.class)
+            .map(ReactionService::toCounts)
+            .switchIfEmpty(Mono.fromSupplier(() -> ReactionService.toCounts(null)));
+    }
+
+    // Counters and the caller's own reactions are read concurrently
+    public Mono<Map<String, Map<String, Object>>> getReactionSummaries(List<String> requestedIds, String contentType, String userId) {
+        List<String> contentIds = ReactionService.summaryBatch(requestedIds);
+        List<String> counterIds = contentIds.stream()
+            .map(contentId -> ReactionCounterModel.idFor(contentId, contentType))
+            .toList();
+        Mono<Map<String, ReactionCounterModel>> counters = reactiveMongoTemplate
+            .find(new Query(Criteria.where("_id").in(counterIds)), ReactionCounterModel.class)
+            .collectMap(ReactionCounterModel::getContentId);
+
+        Mono<Map<String, String>> userReactions = userId == null || userId.isEmpty()
+            ? Mono.just(Collections.emptyMap())
+            : reactiveMongoTemplate.find(ReactionService.userReactionsQuery(userId, contentIds, contentType), ReactionModel.class)
+                .collectMap(ReactionModel::getContentId, ReactionModel::getReactionType);
+
+        return Mono.zip(counters, userReactions)
+            .map(lookups -> ReactionService.toSummaries(contentIds, lookups.getT1(), lookups.getT2()));
+    }
+
+    public Mono<String> getUserReaction(String userId, String contentId, String contentType) {
+        return reactionRepository.findByUserAndContent(userId, contentId, contentType)
+            .map(ReactionModel::getReactionType);
+    }
+
+    public Mono<Void> removeReaction(String userId, String contentId, String contentType, String username) {
+        logger.debug("Removing reaction: userId={}, contentId={}, contentType={}, username={}",
+            userId, contentId, contentType, username);
+
+        return reactionRepository.findByUserAndContent(userId, contentId, contentType)
+            .flatMap(reaction -> removeExisting(reaction, username));
+    }
+}
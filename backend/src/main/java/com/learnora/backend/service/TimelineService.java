@@ -0,0 +1,280 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.dto.CursorPage;
+import com.learnora.backend.dto.PostSummary;
+import com.learnora.backend.model.FollowModel;
+import com.learnora.backend.model.Post;
+import com.learnora.backend.model.TimelineModel;
+import com.learnora.backend.model.UserModel;
+import com.learnora.backend.util.PageCursor;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Home timelines for the community feed. New posts are pushed into a capped timeline document
+ * per follower (fan-out on write), off the request thread. Authors with more followers than the
+ * threshold are flagged instead and their posts are merged in when a timeline is read (fan-out
+ * on read), so one post never turns into millions of writes. When such an author drops back
+ * under the threshold, the posts they made while flagged are pushed to their followers before
+ * reads stop merging them in.
+ */
+@Service
+@Timed(value = "learnora.service", histogram = true)
+public class TimelineService {
+    private static final Logger logger = LoggerFactory.getLogger(TimelineService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int FAN_OUT_BATCH_SIZE = 500;
+
+    private static final Comparator<TimelineModel.Entry> NEWEST_FIRST = Comparator
+            .comparing(TimelineModel.Entry::getCreated)
+            .thenComparing(TimelineModel.Entry::getPostId)
+            .reversed();
+
+    @Value("${learnora.timelines.max-entries:800}")
+    private int maxEntries;
+
+    @Value("${learnora.timelines.fan-out-threshold:5000}")
+    private int fanOutThreshold;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    private final ExecutorService fanOutExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "timeline-fanout");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Queues the post for delivery to its author's followers. Failures are logged; the post
+     * still shows up in the global feed.
+     */
+    public void fanOut(Post post) {
+        if (post.getId() == null || post.getUserId() == null) {
+            return;
+        }
+        fanOutExecutor.execute(() -> {
+            try {
+                pushToFollowers(post);
+            } catch (Exception e) {
+                logger.error("Failed to fan out post {}: {}", post.getId(), e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        fanOutExecutor.shutdown();
+        fanOutExecutor.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    void pushToFollowers(Post post) {
+        String authorId = post.getUserId();
+        Query authorQuery = new Query(Criteria.where("_id").is(authorId));
+        authorQuery.fields().include("followerCount").include("fanOutOnRead").include("fanOutOnReadSince");
+        UserModel author = mongoTemplate.findOne(authorQuery, UserModel.class);
+        if (author == null) {
+            return;
+        }
+
+        boolean fanOutOnRead = author.getFollowerCount() > fanOutThreshold;
+        if (fanOutOnRead && !author.isFanOutOnRead()) {
+            // Starts at this post, which is not pushed either and was created before the fan-out ran
+            Date since = post.getCreated() != null ? post.getCreated() : new Date();
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(authorId)),
+                    new Update().set("fanOutOnRead", true).set("fanOutOnReadSince", since), UserModel.class);
+        } else if (!fanOutOnRead && author.isFanOutOnRead()) {
+            backfill(authorId, author.getFanOutOnReadSince(), post.getId());
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(authorId)),
+                    new Update().set("fanOutOnRead", false).unset("fanOutOnReadSince"), UserModel.class);
+        }
+        if (fanOutOnRead) {
+            return;
+        }
+
+        TimelineModel.Entry entry = new TimelineModel.Entry(post.getId(), authorId, post.getCreated());
+        pushToFollowers(authorId, entry);
+    }
+
+    // Pushes the author's posts made while their timeline entries were read on demand. Without a
+    // start date (flagged before it was recorded) the most recent posts a timeline can hold are used.
+    // The post that triggered the backfill is pushed on its own.
+    private void backfill(String authorId, Date since, String excludedPostId) {
+        Criteria criteria = Criteria.where("userId").is(authorId).and("_id").ne(new ObjectId(excludedPostId));
+        if (since != null) {
+            criteria = criteria.and("created").gte(since);
+        }
+        Query postsQuery = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "created", "_id"))
+                .limit(maxEntries);
+        postsQuery.fields().include("userId").include("created");
+        TimelineModel.Entry[] entries = mongoTemplate.find(postsQuery, Post.class).stream()
+                .map(post -> new TimelineModel.Entry(post.getId(), post.getUserId(), post.getCreated()))
+                .toArray(TimelineModel.Entry[]::new);
+        if (entries.length > 0) {
+            pushToFollowers(authorId, entries);
+            logger.info("Backfilled {} posts of {} into follower timelines", entries.length, authorId);
+        }
+    }
+
+    private void pushToFollowers(String authorId, TimelineModel.Entry... entries) {
+        Update push = new Update().push("entries")
+                .sort(Sort.by(Sort.Direction.DESC, "created"))
+                .slice(maxEntries)
+                .each((Object[]) entries);
+        Query followersQuery = new Query(Criteria.where("followeeId").is(authorId));
+        followersQuery.fields().include("followerId");
+        List<String> batch = new ArrayList<>(FAN_OUT_BATCH_SIZE);
+        try (Stream<FollowModel> followers = mongoTemplate.stream(followersQuery, FollowModel.class)) {
+            for (FollowModel follower : (Iterable<FollowModel>) followers::iterator) {
+                batch.add(follower.getFollowerId());
+                if (batch.size() == FAN_OUT_BATCH_SIZE) {
+                    pushToTimelines(batch, push);
+                    batch.clear();
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            pushToTimelines(batch, push);
+        }
+    }
+
+    private void pushToTimelines(List<String> userIds, Update push) {
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, TimelineModel.class);
+        for (String userId : userIds) {
+            bulk.upsert(new Query(Criteria.where("_id").is(userId)), push);
+        }
+        bulk.execute();
+    }
+
+    /**
+     * Newest-first page of the user's home timeline: entries pushed into their timeline merged
+     * with recent posts by followed authors that are read on demand. Entries of authors the
+     * user no longer follows and of deleted posts are skipped.
+     */
+    public CursorPage<PostSummary> getTimeline(String userEmail, String cursor, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        PageCursor position = cursor != null && !cursor.isEmpty() ? PageCursor.decode(cursor) : null;
+
+        String userId = userService.getUserId(userEmail);
+        Set<String> following = new HashSet<>(userService.getFollowingIds(userEmail));
+        if (following.isEmpty()) {
+            return new CursorPage<>(Collections.emptyList(), null);
+        }
+
+        List<TimelineModel.Entry> candidates = new ArrayList<>();
+        TimelineModel timeline = mongoTemplate.findById(userId, TimelineModel.class);
+        if (timeline != null) {
+            timeline.getEntries().stream()
+                    .filter(entry -> following.contains(entry.getAuthorId()) && isBefore(entry, position))
+                    .sorted(NEWEST_FIRST)
+                    .limit(pageSize + 1)
+                    .forEach(candidates::add);
+        }
+        candidates.addAll(readHighFanOutPosts(following, position, pageSize + 1));
+
+        Map<String, TimelineModel.Entry> merged = new LinkedHashMap<>();
+        candidates.stream()
+                .sorted(NEWEST_FIRST)
+                .forEach(entry -> merged.putIfAbsent(entry.getPostId(), entry));
+        List<TimelineModel.Entry> page = merged.values().stream().limit(pageSize + 1).collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            TimelineModel.Entry last = page.get(pageSize - 1);
+            nextCursor = new PageCursor(last.getCreated().getTime(), last.getPostId()).encode();
+        }
+        return new CursorPage<>(loadSummaries(page), nextCursor);
+    }
+
+    // Posts of followed authors that are not fanned out, read from the userId+created index
+    private List<TimelineModel.Entry> readHighFanOutPosts(Set<String> following, PageCursor position, int limit) {
+        Query authorsQuery = new Query(Criteria.where("_id").in(following).and("fanOutOnRead").is(true));
+        authorsQuery.fields().include("_id");
+        List<String> authorIds = mongoTemplate.find(authorsQuery, UserModel.class).stream()
+                .map(UserModel::getId)
+                .collect(Collectors.toList());
+        if (authorIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Criteria criteria = Criteria.where("userId").in(authorIds);
+        if (position != null) {
+            Date created = new Date(position.getTimestamp());
+            criteria = criteria.orOperator(
+                    Criteria.where("created").lt(created),
+                    Criteria.where("created").is(created).and("_id").lt(new ObjectId(position.getId())));
+        }
+        Query postsQuery = new Query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, "created", "_id"))
+                .limit(limit);
+        postsQuery.fields().include("userId").include("created");
+        return mongoTemplate.find(postsQuery, Post.class).stream()
+                .map(post -> new TimelineModel.Entry(post.getId(), post.getUserId(), post.getCreated()))
+                .collect(Collectors.toList());
+    }
+
+    private List<PostSummary> loadSummaries(List<TimelineModel.Entry> entries) {
+        if (entries.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<ObjectId> ids = entries.stream()
+                .map(entry -> new ObjectId(entry.getPostId()))
+                .collect(Collectors.toList());
+        TypedAggregation<Post> aggregation = Aggregation.newAggregation(Post.class,
+                Aggregation.match(Criteria.where("_id").in(ids)),
+                PostService.summaryProjection());
+        Map<String, PostSummary> summariesById = mongoTemplate.aggregate(aggregation, PostSummary.class)
+                .getMappedResults().stream()
+                .collect(Collectors.toMap(PostSummary::getId, Function.identity()));
+        return entries.stream()
+                .map(entry -> summariesById.get(entry.getPostId()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private static boolean isBefore(TimelineModel.Entry entry, PageCursor position) {
+        if (position == null) {
+            return true;
+        }
+        long created = entry.getCreated().getTime();
+        return created < position.getTimestamp()
+                || (created == position.getTimestamp() && entry.getPostId().compareTo(position.getId()) < 0);
+    }
+}
@@ -4,11 +4,22 @@ import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
 import com.google.api.client.http.javanet.NetHttpTransport;
 import com.google.api.client.json.gson.GsonFactory;
+import com.learnora.backend.dto.PublicProfile;
+import com.learnora.backend.model.FollowModel;
 import com.learnora.backend.model.UserModel;
 import com.learnora.backend.repository.UserRepository;
 import com.learnora.backend.util.JwtUtil;
+import com.learnora.backend.util.NameNormalizer;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -16,17 +27,28 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed(value = "learnora.service", histogram = true)
 public class UserService {
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 50;
+    private static final int SEARCH_CANDIDATE_FACTOR = 3;
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -36,6 +58,9 @@ public class UserService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
     @Value("${google.client-id}")
     private String googleClientId;
 
@@ -45,6 +70,9 @@ public class UserService {
         }
         
         user.setPassword(passwordEncoder.encode(user.getPassword()));
+        user.setSearchTokens(NameNormalizer.searchTokens(user.getFirstName(), user.getLastName()));
+        user.setFollowerCount(0);
+        user.setFollowingCount(0);
         return userRepository.save(user);
     }
 
@@ -92,6 +120,7 @@ public class UserService {
                 newUser.setFirstName(firstName);
                 newUser.setLastName(lastName);
                 newUser.setPhotoURL(photoURL);
+                newUser.setSearchTokens(NameNormalizer.searchTokens(firstName, lastName));
                 newUser.setPassword(passwordEncoder.encode("google-auth-" + email));
                 return userRepository.save(newUser);
             });
@@ -115,24 +144,30 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
     }
 
+    // Field-level $set so the update cannot overwrite follower counters changed concurrently
     public UserModel updateUserProfile(String email, UserModel updates) {
         UserModel user = userRepository.findByEmail(email)
             .orElseThrow(() -> new RuntimeException("User not found"));
         
+        Update update = new Update();
         if (updates.getFirstName() != null) {
             user.setFirstName(updates.getFirstName());
+            update.set("firstName", updates.getFirstName());
         }
         if (updates.getLastName() != null) {
             user.setLastName(updates.getLastName());
+            update.set("lastName", updates.getLastName());
         }
         if (updates.getPhone() != null) {
-            user.setPhone(updates.getPhone());
+            update.set("phone", updates.getPhone());
         }
         if (updates.getPhotoURL() != null) {
-            user.setPhotoURL(updates.getPhotoURL());
+            update.set("photoURL", updates.getPhotoURL());
         }
+        update.set("searchTokens", NameNormalizer.searchTokens(user.getFirstName(), user.getLastName()));
         
-        return userRepository.save(user);
+        return mongoTemplate.findAndModify(new Query(Criteria.where("_id").is(user.getId())), update,
+            FindAndModifyOptions.options().returnNew(true), UserModel.class);
     }
 
     public void changePassword(String email, String oldPassword, String newPassword) {
@@ -143,8 +178,9 @@ public class UserService {
             throw new RuntimeException("Invalid current password");
         }
         
-        user.setPassword(passwordEncoder.encode(newPassword));
-        userRepository.save(user);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(user.getId())),
+            Update.update("password", passwordEncoder.encode(newPassword)), UserModel.class);
+        principalCache.invalidateUser(email);
     }
 
     public void deleteUserProfile(String email, String password) {
@@ -156,56 +192,171 @@ public class UserService {
         }
         
         userRepository.delete(user);
+        removeFollowEdges(user.getId());
+        principalCache.invalidateUser(email);
     }
 
-    public List<UserModel> getFollowers(String email) {
-        UserModel user = userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getFollowers().stream()
-            .map(id -> userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Follower not found")))
+    public List<PublicProfile> getFollowers(String email, int offset, int limit) {
+        return getRelationPage(getUserId(email), "followeeId", offset, limit);
+    }
+
+    public List<PublicProfile> getFollowing(String email, int offset, int limit) {
+        return getRelationPage(getUserId(email), "followerId", offset, limit);
+    }
+
+    // Reads one page of follow edges from the (side, createdAt) index and resolves the users on
+    // the other end with a single $in query, projected to the public profile fields.
+    private List<PublicProfile> getRelationPage(String userId, String side, int offset, int limit) {
+        boolean following = "followerId".equals(side);
+        Query edges = new Query(Criteria.where(side).is(userId))
+            .with(Sort.by(Sort.Direction.ASC, "createdAt", "_id"))
+            .skip(Math.max(offset, 0))
+            .limit(Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+        edges.fields().include(following ? "followeeId" : "followerId");
+        List<String> ids = mongoTemplate.find(edges, FollowModel.class).stream()
+            .map(edge -> following ? edge.getFolloweeId() : edge.getFollowerId())
             .collect(Collectors.toList());
+        return findPublicProfiles(ids);
     }
 
-    public List<UserModel> getFollowing(String email) {
-        UserModel user = userRepository.findByEmail(email)
+    // Returns the profiles in the order of the given ids, skipping ids that no longer exist.
+    private List<PublicProfile> findPublicProfiles(List<String> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<String, PublicProfile> profilesById = mongoTemplate.query(UserModel.class)
+            .as(PublicProfile.class)
+            .matching(new Query(Criteria.where("_id").in(ids)))
+            .all()
+            .stream()
+            .collect(Collectors.toMap(PublicProfile::getId, Function.identity()));
+        return ids.stream()
+            .map(profilesById::get)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList());
+    }
+
+    public String getUserId(String email) {
+        return findIdByEmail(email)
+            .map(UserModel::getId)
             .orElseThrow(() -> new RuntimeException("User not found"));
-        return user.getFollowing().stream()
-            .map(id -> userRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Followed user not found")))
+    }
+
+    // Ids of everyone the user follows, read from the follows collection
+    public List<String> getFollowingIds(String email) {
+        Query edges = new Query(Criteria.where("followerId").is(getUserId(email)));
+        edges.fields().include("followeeId");
+        return mongoTemplate.find(edges, FollowModel.class).stream()
+            .map(FollowModel::getFolloweeId)
             .collect(Collectors.toList());
     }
 
+    // Which of the given users the user follows, answered from the (followerId, followeeId) index
+    public List<String> getFollowedAmong(String email, List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return Collections.emptyList();
+        }
+        if (userIds.size() > MAX_PAGE_SIZE) {
+            throw new RuntimeException("At most " + MAX_PAGE_SIZE + " users can be checked at once");
+        }
+        Query edges = new Query(Criteria.where("followerId").is(getUserId(email)).and("followeeId").in(userIds));
+        edges.fields().include("followeeId");
+        return mongoTemplate.find(edges, FollowModel.class).stream()
+            .map(FollowModel::getFolloweeId)
+            .collect(Collectors.toList());
+    }
+
+    // The unique (followerId, followeeId) index makes following idempotent under concurrency;
+    // the counters only move when an edge was actually created or removed.
     public void followUser(String followerEmail, String userIdToFollow) {
-        UserModel follower = userRepository.findByEmail(followerEmail)
+        UserModel follower = findIdByEmail(followerEmail)
             .orElseThrow(() -> new RuntimeException("Follower not found"));
-        UserModel followed = userRepository.findById(userIdToFollow)
-            .orElseThrow(() -> new RuntimeException("User to follow not found"));
-        
-        if (!follower.getFollowing().contains(userIdToFollow)) {
-            follower.getFollowing().add(userIdToFollow);
-            followed.getFollowers().add(follower.getId());
-            userRepository.save(follower);
-            userRepository.save(followed);
+        if (!userRepository.existsById(userIdToFollow)) {
+            throw new RuntimeException("User to follow not found");
         }
+
+        try {
+            mongoTemplate.insert(new FollowModel(follower.getId(), userIdToFollow));
+        } catch (DuplicateKeyException e) {
+            return; // already following
+        }
+        adjustFollowCounts(follower.getId(), userIdToFollow, 1);
     }
 
     public void unfollowUser(String followerEmail, String userIdToUnfollow) {
-        UserModel follower = userRepository.findByEmail(followerEmail)
+        UserModel follower = findIdByEmail(followerEmail)
             .orElseThrow(() -> new RuntimeException("Follower not found"));
-        UserModel followed = userRepository.findById(userIdToUnfollow)
-            .orElseThrow(() -> new RuntimeException("User to unfollow not found"));
-        
-        follower.getFollowing().remove(userIdToUnfollow);
-        followed.getFollowers().remove(follower.getId());
-        userRepository.save(follower);
-        userRepository.save(followed);
+        if (!userRepository.existsById(userIdToUnfollow)) {
+            throw new RuntimeException("User to unfollow not found");
+        }
+
+        Query edge = new Query(Criteria.where("followerId").is(follower.getId()).and("followeeId").is(userIdToUnfollow));
+        if (mongoTemplate.remove(edge, FollowModel.class).getDeletedCount() > 0) {
+            adjustFollowCounts(follower.getId(), userIdToUnfollow, -1);
+        }
+    }
+
+    private void adjustFollowCounts(String followerId, String followeeId, int delta) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(followerId)),
+            new Update().inc("followingCount", delta), UserModel.class);
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(followeeId)),
+            new Update().inc("followerCount", delta), UserModel.class);
     }
 
-    public List<UserModel> searchUsers(String username) {
-        return userRepository.findAll().stream()
-            .filter(user -> (user.getFirstName() + " " + user.getLastName())
-                .toLowerCase().contains(username.toLowerCase()))
+    // Removes every edge touching the user and gives the users on the other end their counts back
+    private void removeFollowEdges(String userId) {
+        for (boolean asFollower : new boolean[] {true, false}) {
+            Query edges = new Query(Criteria.where(asFollower ? "followerId" : "followeeId").is(userId));
+            edges.fields().include(asFollower ? "followeeId" : "followerId");
+            List<String> others = mongoTemplate.find(edges, FollowModel.class).stream()
+                .map(edge -> asFollower ? edge.getFolloweeId() : edge.getFollowerId())
+                .collect(Collectors.toList());
+            if (!others.isEmpty()) {
+                mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(others)),
+                    new Update().inc(asFollower ? "followerCount" : "followingCount", -1), UserModel.class);
+            }
+            mongoTemplate.remove(edges, FollowModel.class);
+        }
+    }
+
+    private Optional<UserModel> findIdByEmail(String email) {
+        Query userQuery = new Query(Criteria.where("email").is(email));
+        userQuery.fields().include("_id");
+        return Optional.ofNullable(mongoTemplate.findOne(userQuery, UserModel.class));
+    }
+
+    // Anchored prefix query on the indexed searchTokens field. A few extra candidates are
+    // fetched so that exact and full-name matches can be ranked ahead of word matches.
+    public List<PublicProfile> searchUsers(String username, int limit) {
+        String term = NameNormalizer.normalize(username);
+        if (term.isEmpty()) {
+            return Collections.emptyList();
+        }
+        int resultLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS);
+
+        Query query = new Query(Criteria.where("searchTokens").regex("^" + NameNormalizer.escapeRegex(term)))
+            .limit(resultLimit * SEARCH_CANDIDATE_FACTOR);
+        query.fields().include("firstName", "lastName", "email", "photoURL");
+
+        return rankSearchResults(mongoTemplate.find(query, UserModel.class), term, resultLimit);
+    }
+
+    // Exact full-name matches first, then full-name prefixes, then word matches, each by name
+    static List<PublicProfile> rankSearchResults(List<UserModel> candidates, String term, int limit) {
+        return candidates.stream()
+            .sorted(Comparator
+                .comparingInt((UserModel user) -> searchRank(user, term))
+                .thenComparing(user -> NameNormalizer.fullName(user.getFirstName(), user.getLastName())))
+            .limit(limit)
+            .map(PublicProfile::from)
             .collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    private static int searchRank(UserModel user, String term) {
+        String fullName = NameNormalizer.fullName(user.getFirstName(), user.getLastName());
+        if (fullName.equals(term)) {
+            return 0;
+        }
+        return fullName.startsWith(term) ? 1 : 2;
+    }
+}
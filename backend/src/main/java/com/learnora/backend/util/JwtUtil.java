@@ -1,9 +1,11 @@
 package com.learnora.backend.util;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,15 +19,28 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
     private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
-    private final SecretKey key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+    private final SecretKey key;
+    private final JwtParser parser;
     private final long JWT_TOKEN_VALIDITY = 5 * 60 * 60; // 5 hours
 
+    /**
+     * Signs with the HS256 key in {@code learnora.jwt.secret} (base64, at least 256 bits). Every
+     * instance, servlet or reactive, must share it to accept each other's tokens, so startup
+     * fails when it is missing rather than falling back to a per-process key.
+     */
+    public JwtUtil(@Value("${learnora.jwt.secret:}") String secret) {
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalStateException("learnora.jwt.secret is not set");
+        }
+        this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    }
+
+    // Tokens and claims are credentials; they are never logged, only the subject and errors
     public String generateToken(String email) {
-        logger.debug("Generating token for email: {}", email);
+        logger.debug("Generating token for {}", email);
         Map<String, Object> claims = new HashMap<>();
-        String token = createToken(claims, email);
-        logger.debug("Generated token: {}", token);
-        return token;
+        return createToken(claims, email);
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
@@ -40,39 +55,28 @@ public class JwtUtil {
 
     public Boolean validateToken(String token) {
         try {
-            logger.debug("Validating token...");
-            boolean isValid = !isTokenExpired(token);
-            if (isValid) {
-                logger.debug("Token is valid");
-            } else {
-                logger.debug("Token validation failed - token is expired");
-            }
-            return isValid;
+            parseClaims(token);
+            return true;
         } catch (Exception e) {
-            logger.error("Error validating token: {}", e.getMessage());
+            logger.debug("Token rejected: {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Verifies the signature and expiry of the token and returns all of its claims in one
+     * parse. Throws if the token is malformed, tampered with or expired.
+     */
+    public Claims parseClaims(String token) {
+        return getAllClaimsFromToken(token);
+    }
+
     public String getEmailFromToken(String token) {
-        try {
-            logger.debug("Extracting email from token");
-            String email = getClaimFromToken(token, Claims::getSubject);
-            logger.debug("Extracted email: {}", email);
-            return email;
-        } catch (Exception e) {
-            logger.error("Failed to extract email from token: {}", e.getMessage());
-            throw e;
-        }
+        return getClaimFromToken(token, Claims::getSubject);
     }
 
     public Date getExpirationDateFromToken(String token) {
-        try {
-            return getClaimFromToken(token, Claims::getExpiration);
-        } catch (Exception e) {
-            logger.error("Error extracting expiration date from token: {}", e.getMessage());
-            throw e;
-        }
+        return getClaimFromToken(token, Claims::getExpiration);
     }
 
     public <T> T getClaimFromToken(String token, Function<Claims, T> claimsResolver) {
@@ -80,33 +84,8 @@ public class JwtUtil {
         return claimsResolver.apply(claims);
     }
 
+    // Failures propagate to the caller, which decides whether a rejected token is worth logging
     private Claims getAllClaimsFromToken(String token) {
-        try {
-            logger.debug("Parsing all claims from token");
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            logger.debug("Successfully parsed claims: {}", claims);
-            return claims;
-        } catch (Exception e) {
-            logger.error("Failed to parse claims from token: {}", e.getMessage());
-            throw e;
-        }
-    }
-
-    private Boolean isTokenExpired(String token) {
-        try {
-            final Date expiration = getExpirationDateFromToken(token);
-            boolean isExpired = expiration.before(new Date());
-            if (isExpired) {
-                logger.debug("Token is expired. Expiration date: {}", expiration);
-            }
-            return isExpired;
-        } catch (Exception e) {
-            logger.error("Error checking token expiration: {}", e.getMessage());
-            throw e;
-        }
+        return parser.parseClaimsJws(token).getBody();
     }
 }
\ No newline at end of file
@@ -0,0 +1,55 @@
+package com.learnora.backend.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Normalizes person names for indexed prefix search: lower case, accents stripped and
+ * whitespace collapsed, so "José  Núñez" and "jose nunez" produce the same tokens.
+ */
+public final class NameNormalizer {
+
+    private NameNormalizer() {}
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String stripped = Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+        return stripped.toLowerCase().trim().replaceAll("\\s+", " ");
+    }
+
+    public static String fullName(String firstName, String lastName) {
+        return normalize((firstName != null ? firstName : "") + " " + (lastName != null ? lastName : ""));
+    }
+
+    // Every word of the name plus the full name, so a prefix query matches the start of any
+    // word as well as multi-word prefixes like "john sm".
+    public static List<String> searchTokens(String firstName, String lastName) {
+        String fullName = fullName(firstName, lastName);
+        Set<String> tokens = new LinkedHashSet<>();
+        if (!fullName.isEmpty()) {
+            tokens.add(fullName);
+            for (String word : fullName.split(" ")) {
+                tokens.add(word);
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    // Escapes regex metacharacters without \Q..\E so MongoDB can still turn an anchored
+    // pattern into index bounds.
+    public static String escapeRegex(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if ("\\^$.|?*+()[]{}".indexOf(c) >= 0) {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
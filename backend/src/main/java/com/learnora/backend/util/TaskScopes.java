@@ -0,0 +1,156 @@
+package com.learnora.backend.util;
+
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent blocking lookups of one request side by side, in the spirit of
+ * StructuredTaskScope.ShutdownOnFailure (still a preview API): subtasks are forked inside a
+ * scope, {@link Scope#join()} waits for all of them or cancels the rest on the first failure,
+ * and no subtask outlives the scope. Each scope runs its subtasks on fresh virtual threads, or
+ * inline on the caller when parallel lookups are disabled.
+ *
+ * <pre>
+ * try (TaskScopes.Scope scope = taskScopes.open()) {
+ *     Supplier&lt;User&gt; user = scope.fork(() -> ...);
+ *     Supplier&lt;Plan&gt; plan = scope.fork(() -> ...);
+ *     scope.join();
+ *     ... user.get(), plan.get()
+ * }
+ * </pre>
+ */
+@Component
+public class TaskScopes {
+
+    private final boolean parallel;
+
+    public TaskScopes(@Value("${learnora.concurrency.parallel-lookups:false}") boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public Scope open() {
+        return new Scope(parallel
+                ? Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("lookup-", 0).factory())
+                : null);
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final ExecutorService executor;
+        private final CompletionService<Object> completion;
+        private final List<Future<?>> subtasks = new ArrayList<>();
+        private boolean joined;
+
+        private Scope(ExecutorService executor) {
+            this.executor = executor;
+            this.completion = executor != null ? new ExecutorCompletionService<>(executor) : null;
+        }
+
+        /**
+         * Starts the task and returns a handle to its result, readable after {@link #join()}.
+         * The caller's request attributes and logging context are carried over to the subtask.
+         */
+        public <T> Supplier<T> fork(Callable<T> task) {
+            if (joined) {
+                throw new IllegalStateException("Scope already joined");
+            }
+            Future<T> future;
+            if (completion == null) {
+                future = runInline(task);
+            } else {
+                Callable<T> propagating = propagateContext(task);
+                @SuppressWarnings("unchecked")
+                Future<T> submitted = (Future<T>) completion.submit(() -> propagating.call());
+                future = submitted;
+            }
+            subtasks.add(future);
+            return () -> {
+                if (!joined) {
+                    throw new IllegalStateException("Scope not joined yet");
+                }
+                return future.resultNow();
+            };
+        }
+
+        /**
+         * Waits until every subtask completed. The first subtask to fail cancels the others and
+         * its exception is rethrown here.
+         */
+        public void join() throws Exception {
+            try {
+                if (completion != null) {
+                    for (int i = 0; i < subtasks.size(); i++) {
+                        completion.take().get();
+                    }
+                } else {
+                    for (Future<?> subtask : subtasks) {
+                        subtask.get();
+                    }
+                }
+            } catch (ExecutionException e) {
+                subtasks.forEach(subtask -> subtask.cancel(true));
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception exception) {
+                    throw exception;
+                }
+                throw (Error) cause;
+            } finally {
+                joined = true;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (executor != null) {
+                executor.shutdownNow();
+                try {
+                    executor.awaitTermination(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private static <T> Future<T> runInline(Callable<T> task) {
+            try {
+                return CompletableFuture.completedFuture(task.call());
+            } catch (Exception e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        // Keeps Mongo metrics attributed to the calling endpoint and log lines tagged with its request id
+        private static <T> Callable<T> propagateContext(Callable<T> task) {
+            RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+            Map<String, String> logContext = MDC.getCopyOfContextMap();
+            return () -> {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                if (logContext != null) {
+                    MDC.setContextMap(logContext);
+                }
+                try {
+                    return task.call();
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                    MDC.clear();
+                }
+            };
+        }
+    }
+}
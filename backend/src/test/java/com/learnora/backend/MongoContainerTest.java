@@ -0,0 +1,42 @@
+package com.learnora.backend;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.MongoDBContainer;
+
+/**
+ * Base class of the tests that need a real MongoDB. One container is started for the whole test
+ * run and shared by every subclass (and every application context they create), so subclasses
+ * clean up the documents they rely on instead of expecting an empty database.
+ *
+ * Without Docker these tests are skipped, unless {@code learnora.tests.require-docker} is true,
+ * as in the {@code ci} Maven profile (active when the CI environment variable is set). Then they
+ * run and fail, so CI without Docker cannot pass silently.
+ */
+@ExtendWith(MongoContainerTest.DockerAvailable.class)
+public abstract class MongoContainerTest {
+
+    @ServiceConnection
+    protected static final MongoDBContainer mongo = new MongoDBContainer("mongo:7.0");
+
+    static {
+        mongo.start();
+    }
+
+    static class DockerAvailable implements ExecutionCondition {
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (Boolean.getBoolean("learnora.tests.require-docker")) {
+                return ConditionEvaluationResult.enabled("Docker is required");
+            }
+            return DockerClientFactory.instance().isDockerAvailable()
+                    ? ConditionEvaluationResult.enabled("Docker is available")
+                    : ConditionEvaluationResult.disabled("Docker is not available");
+        }
+    }
+}
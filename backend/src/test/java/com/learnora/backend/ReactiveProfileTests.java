@@ -0,0 +1,90 @@
+package com.learnora.backend;
+
+import com.learnora.backend.controller.CommentController;
+import com.learnora.backend.controller.LearningPlanController;
+import com.learnora.backend.controller.ReactiveCommentController;
+import com.learnora.backend.controller.ReactiveReactionController;
+import com.learnora.backend.model.UserModel;
+import com.learnora.backend.repository.ReactiveUserRepository;
+import com.learnora.backend.service.ReactiveReactionService;
+import com.learnora.backend.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+@AutoConfigureWebTestClient
+class ReactiveProfileTests {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Value("${learnora.jwt.secret}")
+	private String jwtSecret;
+
+	// No database in this test: the user lookup behind the token and the reaction read are stubbed
+	@MockitoBean
+	private ReactiveUserRepository userRepository;
+
+	@MockitoBean
+	private ReactiveReactionService reactionService;
+
+	@Test
+	void acceptsTokensSignedByAnotherInstanceWithTheSameSecret() {
+		when(userRepository.findByEmail("learner@example.com"))
+			.thenReturn(Mono.just(new UserModel("Lea", "Learner", "learner@example.com", "secret")));
+		when(reactionService.getReactionCounts("plan-1", "COURSE"))
+			.thenReturn(Mono.just(Map.of("likes", 2L, "dislikes", 0L)));
+
+		// As issued at sign-in by a servlet instance, which has its own JwtUtil
+		String token = new JwtUtil(jwtSecret).generateToken("learner@example.com");
+
+		webTestClient.get().uri("/api/reactions/COURSE/plan-1")
+			.header("Authorization", "Bearer " + token)
+			.exchange()
+			.expectStatus().is2xxSuccessful()
+			.expectBody().jsonPath("$.likes").isEqualTo(2);
+	}
+
+	@Test
+	void requestsWithoutValidTokenAreForbidden() {
+		webTestClient.get().uri("/api/reactions/test")
+			.exchange()
+			.expectStatus().isForbidden();
+
+		webTestClient.get().uri("/api/comments/post/plan-1")
+			.header("Authorization", "Bearer not-a-token")
+			.exchange()
+			.expectStatus().isForbidden();
+
+		webTestClient.post().uri("/actuator/queryplans")
+			.exchange()
+			.expectStatus().isForbidden();
+	}
+
+	@Test
+	void servesReactiveControllersOnly() {
+		assertFalse(context.getBeansOfType(ReactiveCommentController.class).isEmpty());
+		assertFalse(context.getBeansOfType(ReactiveReactionController.class).isEmpty());
+		assertTrue(context.getBeansOfType(CommentController.class).isEmpty());
+		assertTrue(context.getBeansOfType(LearningPlanController.class).isEmpty());
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.learnora.backend.config;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.dto.QueryPlanCheck;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fails the build when a repository query has no index to use. Add the missing
+ * {@code @Indexed}/{@code @CompoundIndex} to the model rather than excluding the query.
+ */
+@SpringBootTest(properties = "learnora.query-plans.verify-on-startup=false")
+class QueryPlanVerifierTest extends MongoContainerTest {
+
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
+    @Autowired
+    private QueryPlanVerifier queryPlanVerifier;
+
+    @Test
+    void noRepositoryQueryScansACollection() {
+        mongoIndexConfig.ensureIndexes();
+
+        List<QueryPlanCheck> report = queryPlanVerifier.verify();
+
+        assertFalse(report.isEmpty());
+        List<QueryPlanCheck> problems = report.stream()
+            .filter(check -> check.isCollectionScan() || check.getError() != null)
+            .toList();
+        assertTrue(problems.isEmpty(), () -> "Queries without a usable index: " + problems);
+    }
+}
@@ -0,0 +1,86 @@
+package com.learnora.backend.migration;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.model.FollowModel;
+import com.learnora.backend.model.UserModel;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+@SpringBootTest(properties = "learnora.users.migrate-follows=true")
+class FollowEdgeMigrationTest extends MongoContainerTest {
+
+    @Autowired
+    private FollowEdgeMigration followEdgeMigration;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void rerunsLeaveTheSameEdgesAndCounters() {
+        ObjectId a = new ObjectId();
+        ObjectId b = new ObjectId();
+        ObjectId c = new ObjectId();
+        // a -> b is on both sides, a -> c only on a, c -> a only on a
+        insertLegacyUser(a, List.of(b.toHexString(), c.toHexString()), List.of(c.toHexString()));
+        insertLegacyUser(b, List.of(), List.of(a.toHexString()));
+        insertLegacyUser(c, List.of(), List.of());
+
+        followEdgeMigration.run(null);
+        assertMigrated(a, b, c);
+
+        followEdgeMigration.run(null);
+        assertMigrated(a, b, c);
+
+        // As if a run stopped before the arrays were removed
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(a)),
+                new Update().set("following", List.of(b.toHexString(), c.toHexString())).set("followers", List.of(c.toHexString())),
+                UserModel.class);
+        followEdgeMigration.run(null);
+        assertMigrated(a, b, c);
+    }
+
+    private void assertMigrated(ObjectId a, ObjectId b, ObjectId c) {
+        assertEquals(1, edges(a, b));
+        assertEquals(1, edges(a, c));
+        assertEquals(1, edges(c, a));
+        assertEquals(0, edges(b, a));
+
+        assertCounts(a, 1, 2);
+        assertCounts(b, 1, 0);
+        assertCounts(c, 1, 1);
+    }
+
+    private void assertCounts(ObjectId userId, long followers, long following) {
+        Document user = mongoTemplate.findById(userId, Document.class, mongoTemplate.getCollectionName(UserModel.class));
+        assertEquals(followers, ((Number) user.get("followerCount")).longValue());
+        assertEquals(following, ((Number) user.get("followingCount")).longValue());
+        assertFalse(user.containsKey("followers"));
+        assertFalse(user.containsKey("following"));
+    }
+
+    private void insertLegacyUser(ObjectId id, List<String> following, List<String> followers) {
+        Document user = new Document("_id", id)
+                .append("email", "migration-" + UUID.randomUUID() + "@example.com")
+                .append("following", following)
+                .append("followers", followers);
+        mongoTemplate.insert(user, mongoTemplate.getCollectionName(UserModel.class));
+    }
+
+    private long edges(ObjectId follower, ObjectId followee) {
+        return mongoTemplate.count(new Query(Criteria.where("followerId").is(follower.toHexString())
+                .and("followeeId").is(followee.toHexString())), FollowModel.class);
+    }
+}
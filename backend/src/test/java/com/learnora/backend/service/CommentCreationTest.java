@@ -0,0 +1,84 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.model.CommentModel;
+import com.learnora.backend.model.LearningPlanModel;
+import com.learnora.backend.model.UserModel;
+import com.learnora.backend.repository.CommentRepository;
+import com.learnora.backend.repository.LearningPlanRepository;
+import com.learnora.backend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = "learnora.concurrency.parallel-lookups=true")
+class CommentCreationTest extends MongoContainerTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    private LearningPlanModel plan;
+
+    @BeforeEach
+    void setUp() {
+        commentRepository.deleteAll();
+        userRepository.deleteAll();
+        userRepository.save(new UserModel("Lea", "Learner", "learner@example.com", "secret"));
+        plan = learningPlanRepository.save(new LearningPlanModel("author@example.com", "Plan", "", new Date(),
+                new Date(), List.of(), null));
+    }
+
+    @Test
+    void replyIsSavedAfterConcurrentLookups() throws Exception {
+        CommentModel root = commentService.createComment(comment(plan.getId(), null));
+        CommentModel reply = commentService.createComment(comment(plan.getId(), root.getId()));
+
+        assertNotNull(reply.getId());
+        assertEquals(2, commentRepository.findByPostId(plan.getId()).size());
+    }
+
+    @Test
+    void failedLookupsSaveNothing() {
+        Exception missingPlan = assertThrows(Exception.class,
+                () -> commentService.createComment(comment("missing-plan", null)));
+        assertEquals("Learning plan not found", missingPlan.getMessage());
+
+        Exception missingParent = assertThrows(Exception.class,
+                () -> commentService.createComment(comment(plan.getId(), "missing-comment")));
+        assertEquals("Parent comment not found", missingParent.getMessage());
+
+        CommentModel stranger = comment(plan.getId(), null);
+        stranger.setUserId("stranger@example.com");
+        Exception missingUser = assertThrows(Exception.class, () -> commentService.createComment(stranger));
+        assertEquals("User not found", missingUser.getMessage());
+
+        assertEquals(0, commentRepository.count());
+    }
+
+    private static CommentModel comment(String postId, String parentId) {
+        CommentModel comment = new CommentModel();
+        comment.setPostId(postId);
+        comment.setParentId(parentId);
+        comment.setUserId("learner@example.com");
+        comment.setUsername("Lea Learner");
+        comment.setText("Helpful plan");
+        return comment;
+    }
+}
@@ -0,0 +1,77 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.dto.PlanOwnerInfo;
+import com.learnora.backend.model.LearningPlanModel;
+import com.learnora.backend.repository.LearningPlanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+class LearningPlanCacheTest extends MongoContainerTest {
+
+    @Autowired
+    private LearningPlanService learningPlanService;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    @Test
+    void repeatedReadsAreServedFromTheCache() throws Exception {
+        LearningPlanModel plan = learningPlanRepository.save(plan(false));
+
+        LearningPlanModel first = learningPlanService.getPlanById(plan.getId());
+        LearningPlanModel second = learningPlanService.getPlanById(plan.getId());
+
+        assertSame(first, second);
+    }
+
+    @Test
+    void updateAndDeleteInvalidatePlanAndOwnerInfo() throws Exception {
+        LearningPlanModel plan = learningPlanRepository.save(plan(false));
+        learningPlanService.getPlanById(plan.getId());
+        learningPlanService.getPlanOwnerInfo(plan.getId());
+
+        LearningPlanModel updates = new LearningPlanModel();
+        updates.setId(plan.getId());
+        updates.setTitle("Renamed");
+        learningPlanService.updatePlan("author@example.com", updates);
+
+        assertEquals("Renamed", learningPlanService.getPlanById(plan.getId()).getTitle());
+        PlanOwnerInfo owner = learningPlanService.getPlanOwnerInfo(plan.getId()).orElseThrow();
+        assertEquals("Renamed", owner.getTitle());
+        assertEquals("author@example.com", owner.getUserEmail());
+
+        learningPlanService.deletePlan(plan.getId(), "author@example.com");
+
+        assertThrows(Exception.class, () -> learningPlanService.getPlanById(plan.getId()));
+        assertFalse(learningPlanService.getPlanOwnerInfo(plan.getId()).isPresent());
+    }
+
+    @Test
+    void enrollmentInvalidatesTheSharedPlan() throws Exception {
+        LearningPlanModel shared = learningPlanRepository.save(plan(true));
+        learningPlanService.getPlanById(shared.getId());
+
+        learningPlanService.startLearningPlan("learner@example.com", shared.getId());
+
+        LearningPlanModel reloaded = learningPlanService.getPlanById(shared.getId());
+        assertEquals(List.of("learner@example.com"), reloaded.getEnrolledUsers());
+        assertEquals(1, reloaded.getEnrollmentCount());
+    }
+
+    private LearningPlanModel plan(boolean shared) {
+        LearningPlanModel plan = new LearningPlanModel("author@example.com", "Plan", "", new Date(), new Date(), null, null);
+        plan.setShared(shared);
+        return plan;
+    }
+}
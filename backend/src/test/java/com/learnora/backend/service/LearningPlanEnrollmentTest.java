@@ -0,0 +1,97 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.config.MongoIndexConfig;
+import com.learnora.backend.model.LearningPlanModel;
+import com.learnora.backend.repository.LearningPlanRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class LearningPlanEnrollmentTest extends MongoContainerTest {
+
+    @Autowired
+    private LearningPlanService learningPlanService;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
+    @BeforeEach
+    void createIndexes() {
+        // Normally created in the background after startup; the test needs the unique index now
+        mongoIndexConfig.ensureIndexes();
+    }
+
+    @Test
+    void concurrentEnrollmentsOfOneUserCreateOneCopy() throws Exception {
+        LearningPlanModel shared = learningPlanRepository.save(sharedPlan());
+
+        List<Callable<String>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> learningPlanService.startLearningPlan("learner@example.com", shared.getId()).getId());
+        }
+
+        Set<String> copyIds = new HashSet<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<String> result : executor.invokeAll(tasks)) {
+                copyIds.add(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, copyIds.size());
+        LearningPlanModel reloaded = learningPlanRepository.findById(shared.getId()).orElseThrow();
+        assertEquals(List.of("learner@example.com"), reloaded.getEnrolledUsers());
+        assertEquals(1, reloaded.getEnrollmentCount());
+    }
+
+    @Test
+    void concurrentEnrollmentsOfManyUsersAreAllCounted() throws Exception {
+        LearningPlanModel shared = learningPlanRepository.save(sharedPlan());
+        int users = 50;
+
+        List<Callable<LearningPlanModel>> tasks = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            String email = "learner" + i + "@example.com";
+            tasks.add(() -> learningPlanService.startLearningPlan(email, shared.getId()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            for (Future<LearningPlanModel> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        LearningPlanModel reloaded = learningPlanRepository.findById(shared.getId()).orElseThrow();
+        assertEquals(users, reloaded.getEnrolledUsers().size());
+        assertEquals(users, reloaded.getEnrollmentCount());
+    }
+
+    private LearningPlanModel sharedPlan() {
+        LearningPlanModel plan = new LearningPlanModel("author@example.com", "Shared plan", "", new Date(), new Date(), null, null);
+        plan.setShared(true);
+        return plan;
+    }
+}
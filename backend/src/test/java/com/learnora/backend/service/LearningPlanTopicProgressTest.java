@@ -0,0 +1,79 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.model.LearningPlanModel;
+import com.learnora.backend.repository.LearningPlanRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class LearningPlanTopicProgressTest extends MongoContainerTest {
+
+    @Autowired
+    private LearningPlanService learningPlanService;
+
+    @Autowired
+    private LearningPlanRepository learningPlanRepository;
+
+    @Test
+    void updatesOnlyTheTopicAndProgress() throws Exception {
+        LearningPlanModel plan = learningPlanRepository.save(planWithTopics(8));
+
+        LearningPlanModel updated = learningPlanService.updateTopicProgress("owner@example.com", plan.getId(), 3, true);
+
+        assertTrue(updated.getTopics().get(3).isCompleted());
+        assertFalse(updated.getTopics().get(2).isCompleted());
+        assertEquals(13, updated.getProgress()); // 12.5 rounds half up, like calculateProgress
+        assertNull(updated.getImageUrl()); // not part of the response
+
+        LearningPlanModel stored = learningPlanRepository.findById(plan.getId()).orElseThrow();
+        assertEquals("/api/media/cover", stored.getImageUrl());
+        assertEquals("Topic 3", stored.getTopics().get(3).getTitle());
+        assertTrue(stored.getTopics().get(3).isCompleted());
+    }
+
+    @Test
+    void togglesManyTopicsAtOnce() throws Exception {
+        LearningPlanModel plan = learningPlanRepository.save(planWithTopics(4));
+
+        LearningPlanModel updated = learningPlanService.updateTopicsProgress("owner@example.com", plan.getId(),
+                Map.of(0, true, 1, true, 3, true));
+        assertEquals(75, updated.getProgress());
+
+        updated = learningPlanService.updateTopicsProgress("owner@example.com", plan.getId(), Map.of(1, false));
+        assertEquals(50, updated.getProgress());
+        assertFalse(updated.getTopics().get(1).isCompleted());
+    }
+
+    @Test
+    void rejectsOutOfRangeIndexAndOtherOwners() {
+        LearningPlanModel plan = learningPlanRepository.save(planWithTopics(2));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> learningPlanService.updateTopicProgress("owner@example.com", plan.getId(), 2, true));
+        assertThrows(Exception.class,
+                () -> learningPlanService.updateTopicProgress("someone@example.com", plan.getId(), 0, true));
+    }
+
+    private LearningPlanModel planWithTopics(int count) {
+        List<LearningPlanModel.Topic> topics = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            LearningPlanModel.Topic topic = new LearningPlanModel.Topic();
+            topic.setTitle("Topic " + i);
+            topics.add(topic);
+        }
+        return new LearningPlanModel("owner@example.com", "Plan", "", new Date(), new Date(), topics, "/api/media/cover");
+    }
+}
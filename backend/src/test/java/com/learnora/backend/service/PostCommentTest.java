@@ -0,0 +1,55 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.dto.CursorPage;
+import com.learnora.backend.model.Post;
+import com.learnora.backend.model.PostCommentModel;
+import com.learnora.backend.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class PostCommentTest extends MongoContainerTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Test
+    void creationTimesAreSetByTheServer() {
+        Post input = new Post();
+        input.setCreated(null);
+        Post post = postService.addPost(input);
+        assertNotNull(postRepository.findById(post.getId()).orElseThrow().getCreated());
+
+        List<String> commentIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            PostCommentModel comment = new PostCommentModel();
+            comment.setText("Comment " + i);
+            comment.setCreatedAt(null);
+            commentIds.add(postService.addComment(post.getId(), comment).getId());
+        }
+
+        // Paging needs every comment to have a creation time for its cursor
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            CursorPage<PostCommentModel> page = postService.getComments(post.getId(), cursor, 2);
+            page.getItems().forEach(comment -> seen.add(comment.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null && seen.size() <= commentIds.size());
+
+        assertEquals(commentIds.size(), seen.size());
+        assertEquals(new HashSet<>(commentIds), new HashSet<>(seen));
+    }
+}
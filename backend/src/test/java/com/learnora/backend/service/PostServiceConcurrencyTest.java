@@ -0,0 +1,74 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.model.Post;
+import com.learnora.backend.repository.PostRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class PostServiceConcurrencyTest extends MongoContainerTest {
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Test
+    void concurrentLikesAreNotLost() throws Exception {
+        Post post = postRepository.save(new Post());
+        int likes = 500;
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < likes; i++) {
+            tasks.add(() -> postService.likePost(post.getId()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        Set<Integer> observedCounts = new HashSet<>();
+        try {
+            for (Future<Integer> result : executor.invokeAll(tasks)) {
+                observedCounts.add(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // Every like saw a distinct post-increment value and none were overwritten
+        assertEquals(likes, observedCounts.size());
+        assertEquals(likes, postRepository.findById(post.getId()).orElseThrow().getLikes());
+    }
+
+    @Test
+    void unlikeNeverGoesBelowZero() throws Exception {
+        Post post = postRepository.save(new Post());
+        postService.likePost(post.getId());
+
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            tasks.add(() -> postService.unlikePost(post.getId()));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            executor.invokeAll(tasks);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(0, postRepository.findById(post.getId()).orElseThrow().getLikes());
+    }
+}
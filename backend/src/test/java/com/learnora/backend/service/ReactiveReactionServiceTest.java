@@ -0,0 +1,63 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.repository.ReactionCounterRepository;
+import com.learnora.backend.repository.ReactionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+class ReactiveReactionServiceTest extends MongoContainerTest {
+
+    @Autowired
+    private ReactiveReactionService reactionService;
+
+    @Autowired
+    private ReactionRepository reactionRepository;
+
+    @Autowired
+    private ReactionCounterRepository reactionCounterRepository;
+
+    @BeforeEach
+    void setUp() {
+        reactionRepository.deleteAll();
+        reactionCounterRepository.deleteAll();
+    }
+
+    @Test
+    void likeSwitchAndToggleOffKeepCountersInStep() {
+        assertEquals(1L, reactionService.addReaction("a@example.com", "post-1", "POST", "LIKE", "A").block().get("likes"));
+
+        Map<String, Object> switched = reactionService.addReaction("a@example.com", "post-1", "POST", "DISLIKE", "A").block();
+        assertEquals(0L, switched.get("likes"));
+        assertEquals(1L, switched.get("dislikes"));
+
+        Map<String, Object> removed = reactionService.addReaction("a@example.com", "post-1", "POST", "DISLIKE", "A").block();
+        assertEquals(0L, removed.get("dislikes"));
+        assertNull(reactionService.getUserReaction("a@example.com", "post-1", "POST").block());
+    }
+
+    @Test
+    void concurrentBurstKeepsCounterEqualToReactions() {
+        // Four toggles per user, racing each other
+        Flux.range(0, 200)
+            .flatMap(i -> reactionService.addReaction("user" + (i % 50) + "@example.com", "post-2", "POST", "LIKE", "U"), 64)
+            .blockLast();
+
+        long stored = reactionRepository.countByContentAndType("post-2", "POST", "LIKE");
+        Map<String, Map<String, Object>> summaries = reactionService
+            .getReactionSummaries(List.of("post-2"), "POST", "user1@example.com").block();
+        assertEquals(stored, summaries.get("post-2").get("likes"));
+    }
+}
@@ -0,0 +1,169 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.dto.CursorPage;
+import com.learnora.backend.dto.PostSummary;
+import com.learnora.backend.model.FollowModel;
+import com.learnora.backend.model.Post;
+import com.learnora.backend.model.TimelineModel;
+import com.learnora.backend.model.UserModel;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "learnora.timelines.fan-out-threshold=2",
+        "learnora.timelines.max-entries=5"
+})
+class TimelineServiceTest extends MongoContainerTest {
+
+    private static final long BASE_TIME = System.currentTimeMillis() - 3_600_000;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Test
+    void pagesMergePushedAndOnReadEntriesWithoutGapsOrDuplicates() {
+        UserModel reader = user(0);
+        UserModel pushed = user(1);
+        UserModel popular = user(3);
+        follow(reader, pushed);
+        follow(reader, popular);
+
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            UserModel author = i % 2 == 0 ? pushed : popular;
+            Post post = post(author, i);
+            timelineService.pushToFollowers(post);
+            expected.add(0, post.getId());
+        }
+        assertTrue(isFanOutOnRead(popular));
+        assertEquals(3, timeline(reader).getEntries().size());
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<PostSummary> page = timelineService.getTimeline(reader.getEmail(), cursor, 2);
+            page.getItems().forEach(summary -> seen.add(summary.getId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertEquals(expected, seen);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void authorsCrossingTheThresholdSwitchToReadsAndBack() {
+        UserModel reader = user(0);
+        UserModel author = user(1);
+        follow(reader, author);
+
+        Post beforeFlag = post(author, 0);
+        timelineService.pushToFollowers(beforeFlag);
+        assertEquals(List.of(beforeFlag.getId()), entryIds(reader));
+
+        setFollowerCount(author, 10);
+        Post whileFlagged = post(author, 1);
+        timelineService.pushToFollowers(whileFlagged);
+        assertTrue(isFanOutOnRead(author));
+        assertEquals(List.of(beforeFlag.getId()), entryIds(reader));
+        assertEquals(List.of(whileFlagged.getId(), beforeFlag.getId()), timelineIds(reader));
+
+        setFollowerCount(author, 1);
+        Post afterUnflag = post(author, 2);
+        timelineService.pushToFollowers(afterUnflag);
+        assertFalse(isFanOutOnRead(author));
+        // The post made while flagged is backfilled, so reads no longer need to merge it in
+        assertEquals(List.of(afterUnflag.getId(), whileFlagged.getId(), beforeFlag.getId()), entryIds(reader));
+        assertEquals(List.of(afterUnflag.getId(), whileFlagged.getId(), beforeFlag.getId()), timelineIds(reader));
+    }
+
+    @Test
+    void timelinesKeepOnlyTheNewestEntries() {
+        UserModel reader = user(0);
+        UserModel author = user(1);
+        follow(reader, author);
+
+        List<String> postIds = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            Post post = post(author, i);
+            timelineService.pushToFollowers(post);
+            postIds.add(0, post.getId());
+        }
+
+        assertEquals(postIds.subList(0, 5), entryIds(reader));
+        CursorPage<PostSummary> page = timelineService.getTimeline(reader.getEmail(), null, 10);
+        assertEquals(postIds.subList(0, 5), page.getItems().stream().map(PostSummary::getId).collect(Collectors.toList()));
+        assertNull(page.getNextCursor());
+    }
+
+    private UserModel user(long followerCount) {
+        String email = "timeline-" + UUID.randomUUID() + "@example.com";
+        UserModel user = new UserModel("Timeline", "User", email, "password");
+        user.setFollowerCount(followerCount);
+        return mongoTemplate.insert(user);
+    }
+
+    private void follow(UserModel follower, UserModel followee) {
+        mongoTemplate.insert(new FollowModel(follower.getId(), followee.getId()));
+    }
+
+    // Posts get increasing, distinct timestamps, so the expected order is the creation order
+    private Post post(UserModel author, int index) {
+        Post post = new Post();
+        post.setTitle("Post " + index);
+        post.setContent("");
+        post.setUserId(author.getId());
+        post.setUserEmail(author.getEmail());
+        post.setCreated(new Date(BASE_TIME + index * 1000L));
+        return mongoTemplate.insert(post);
+    }
+
+    private void setFollowerCount(UserModel user, long followerCount) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(user.getId())),
+                new Update().set("followerCount", followerCount), UserModel.class);
+    }
+
+    private boolean isFanOutOnRead(UserModel user) {
+        return mongoTemplate.findById(user.getId(), UserModel.class).isFanOutOnRead();
+    }
+
+    private TimelineModel timeline(UserModel user) {
+        TimelineModel timeline = mongoTemplate.findById(user.getId(), TimelineModel.class);
+        assertNotNull(timeline);
+        return timeline;
+    }
+
+    private List<String> entryIds(UserModel user) {
+        return timeline(user).getEntries().stream()
+                .map(TimelineModel.Entry::getPostId)
+                .collect(Collectors.toList());
+    }
+
+    private List<String> timelineIds(UserModel user) {
+        return timelineService.getTimeline(user.getEmail(), null, 10).getItems().stream()
+                .map(PostSummary::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,128 @@
+package com.learnora.backend.service;
+
+import com.learnora.backend.MongoContainerTest;
+import com.learnora.backend.config.MongoIndexConfig;
+import com.learnora.backend.model.FollowModel;
+import com.learnora.backend.model.UserModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class UserFollowTest extends MongoContainerTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private MongoIndexConfig mongoIndexConfig;
+
+    @BeforeEach
+    void createIndexes() {
+        // Normally created in the background after startup; the test needs the unique index now
+        mongoIndexConfig.ensureIndexes();
+    }
+
+    @Test
+    void concurrentFollowsOfOneUserCreateOneEdge() throws Exception {
+        UserModel follower = user();
+        UserModel followee = user();
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            tasks.add(() -> {
+                userService.followUser(follower.getEmail(), followee.getId());
+                return null;
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (Future<Void> result : executor.invokeAll(tasks)) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, edges(follower, followee));
+        assertEquals(1, reload(follower).getFollowingCount());
+        assertEquals(1, reload(followee).getFollowerCount());
+    }
+
+    @Test
+    void unfollowingWithoutAnEdgeLeavesCountsAlone() {
+        UserModel follower = user();
+        UserModel followee = user();
+        userService.followUser(follower.getEmail(), followee.getId());
+
+        userService.unfollowUser(follower.getEmail(), followee.getId());
+        userService.unfollowUser(follower.getEmail(), followee.getId());
+
+        assertEquals(0, edges(follower, followee));
+        assertEquals(0, reload(follower).getFollowingCount());
+        assertEquals(0, reload(followee).getFollowerCount());
+    }
+
+    @Test
+    void followedAmongReturnsOnlyFollowedUsers() {
+        UserModel follower = user();
+        UserModel followed = user();
+        UserModel other = user();
+        userService.followUser(follower.getEmail(), followed.getId());
+
+        assertEquals(List.of(followed.getId()),
+                userService.getFollowedAmong(follower.getEmail(), List.of(followed.getId(), other.getId())));
+    }
+
+    @Test
+    void deletingAUserGivesBackTheCountsOfEveryoneConnected() {
+        UserModel deleted = user();
+        UserModel follower = user();
+        UserModel followee = user();
+        userService.followUser(follower.getEmail(), deleted.getId());
+        userService.followUser(deleted.getEmail(), followee.getId());
+
+        userService.deleteUserProfile(deleted.getEmail(), "password");
+
+        assertEquals(0, edges(follower, deleted));
+        assertEquals(0, edges(deleted, followee));
+        assertEquals(0, reload(follower).getFollowingCount());
+        assertEquals(0, reload(followee).getFollowerCount());
+    }
+
+    private UserModel user() {
+        String email = "follow-" + UUID.randomUUID() + "@example.com";
+        return mongoTemplate.insert(new UserModel("Follow", "User", email, passwordEncoder.encode("password")));
+    }
+
+    private long edges(UserModel follower, UserModel followee) {
+        return mongoTemplate.count(new Query(Criteria.where("followerId").is(follower.getId())
+                .and("followeeId").is(followee.getId())), FollowModel.class);
+    }
+
+    private UserModel reload(UserModel user) {
+        return mongoTemplate.findById(user.getId(), UserModel.class);
+    }
+}
@@ -1,6 +1,6 @@
 import React, { useState, useEffect, useRef } from 'react';
 import './Courses.css';
-import learningPlanService from '../../services/learningPlanService';
+import learningPlanService, { resolveImageUrl } from '../../services/learningPlanService';
 import { createComment, getCommentsByPostId, updateComment, deleteComment, toggleCommentVisibility } from '../../services/commentService';
 import { useAuth } from '../../context/AuthContext';
 import { useLocation, useNavigate } from 'react-router-dom';
@@ -488,7 +488,7 @@ const Courses = () => {
             >
               <div className="course-image">
                 <img 
-                  src={plan.imageUrl || '/images/default-plan.jpg'} 
+                  src={resolveImageUrl(plan.imageUrl) || '/images/default-plan.jpg'} 
                   alt={plan.title}
                   onError={(e) => {
                     e.target.src = '/images/default-plan.jpg';
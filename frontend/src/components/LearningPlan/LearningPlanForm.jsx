@@ -1,5 +1,6 @@
 import React, { useState, useEffect } from 'react';
 import './LearningPlan.css';
+import { resolveImageUrl } from '../../services/learningPlanService';
 
 const LearningPlanForm = ({ plan, onSubmit, onCancel }) => {
   const [formData, setFormData] = useState({
@@ -27,7 +28,7 @@ const LearningPlanForm = ({ plan, onSubmit, onCancel }) => {
         imageUrl: plan.imageUrl || ''
       });
       if (plan.imageUrl) {
-        setImagePreview(plan.imageUrl);
+        setImagePreview(resolveImageUrl(plan.imageUrl));
       }
     }
   }, [plan]);
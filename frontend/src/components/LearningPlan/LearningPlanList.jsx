@@ -1,6 +1,6 @@
 import React, { useState } from 'react';
 import './LearningPlan.css';
-import learningPlanService from '../../services/learningPlanService';
+import learningPlanService, { resolveImageUrl } from '../../services/learningPlanService';
 
 const calculateProgress = (plan) => {
   if (!plan.topics || plan.topics.length === 0) return 0;
@@ -54,7 +54,7 @@ const LearningPlanList = ({
           <div className="modal-content">
             <div className="modal-image">
               <img 
-                src={selectedPlan.imageUrl || '/images/default-plan.jpg'} 
+                src={resolveImageUrl(selectedPlan.imageUrl) || '/images/default-plan.jpg'} 
                 alt={selectedPlan.title}
                 onError={(e) => {
                   e.target.src = '/images/default-plan.jpg';
@@ -157,7 +157,7 @@ const LearningPlanList = ({
       <div key={plan.id} className="plan-card">
         <div className="plan-image">
           <img 
-            src={plan.imageUrl || '/images/default-plan.jpg'} 
+            src={resolveImageUrl(plan.imageUrl) || '/images/default-plan.jpg'} 
             alt={plan.title}
             onError={handleImageError}
           />
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { useAuth } from '../../context/AuthContext';
 import { useNavigate } from 'react-router-dom';
-import { getUnreadCount, getUserNotifications, markAsRead, markAllAsRead } from '../../services/notificationService';
+import { getUnreadCount, getNotificationsPage, markAsRead, markAllAsRead, subscribeToNotifications } from '../../services/notificationService';
 import './NotificationBell.css';
 
 const NotificationBell = () => {
@@ -10,6 +10,7 @@ const NotificationBell = () => {
     const [unreadCount, setUnreadCount] = useState(0);
     const [notifications, setNotifications] = useState([]);
     const [isOpen, setIsOpen] = useState(false);
+    const [nextCursor, setNextCursor] = useState(null);
 
     const fetchUnreadCount = async () => {
         if (!user?.email) return;
@@ -26,15 +27,25 @@ const NotificationBell = () => {
     const fetchNotifications = async () => {
         if (!user?.email) return;
         try {
-            console.log('Fetching notifications for user:', user.email);
-            const allNotifications = await getUserNotifications(user.email);
-            console.log('All notifications:', allNotifications);
-            setNotifications(allNotifications);
+            const page = await getNotificationsPage();
+            setNotifications(page.items);
+            setNextCursor(page.nextCursor);
         } catch (error) {
             console.error('Error fetching notifications:', error);
         }
     };
 
+    const loadMoreNotifications = async () => {
+        if (!nextCursor) return;
+        try {
+            const page = await getNotificationsPage(nextCursor);
+            setNotifications(prevNotifications => [...prevNotifications, ...page.items]);
+            setNextCursor(page.nextCursor);
+        } catch (error) {
+            console.error('Error loading more notifications:', error);
+        }
+    };
+
     // Initial fetch
     useEffect(() => {
         if (user?.email) {
@@ -44,21 +55,28 @@ const NotificationBell = () => {
         }
     }, [user]);
 
-    // Poll for new notifications every 30 seconds
+    // Live updates pushed by the server instead of polling
     useEffect(() => {
         if (!user?.email) return;
 
-        console.log('Setting up notification polling');
-        const pollInterval = setInterval(() => {
-            console.log('Polling for new notifications');
-            fetchUnreadCount();
-            if (isOpen) {
+        return subscribeToNotifications((event, data) => {
+            if (event === 'notification') {
+                setNotifications(prevNotifications =>
+                    prevNotifications.some(n => n.id === data.id) ? prevNotifications : [data, ...prevNotifications]
+                );
+                if (!data.read) {
+                    setUnreadCount(prevCount => prevCount + 1);
+                }
+            } else if (event === 'unread-count') {
+                setUnreadCount(prevCount =>
+                    data.count !== undefined ? data.count : Math.max(0, prevCount + data.delta)
+                );
+            } else if (event === 'resync') {
+                fetchUnreadCount();
                 fetchNotifications();
             }
-        }, 30000); // 30 seconds
-
-        return () => clearInterval(pollInterval);
-    }, [user, isOpen]);
+        });
+    }, [user]);
 
     const handleBellClick = () => {
         setIsOpen(!isOpen);
@@ -79,8 +97,7 @@ const NotificationBell = () => {
                 )
             );
 
-            // Update unread count
-            setUnreadCount(prevCount => Math.max(0, prevCount - 1));
+            // The unread count is updated by the notification stream
 
             // Handle navigation based on notification type
             if (notification.type === 'COURSE_COMMENT') {
@@ -104,11 +121,15 @@ const NotificationBell = () => {
     const handleMarkAllRead = async () => {
         if (!user?.email) return;
         try {
-            await markAllAsRead(user.email);
-            setUnreadCount(0);
-            // Update all notifications to read in the state
+            // Acknowledge only what is on screen; the list is sorted newest first
+            const shown = notifications[0];
+            await markAllAsRead(shown?.id);
             setNotifications(prevNotifications =>
-                prevNotifications.map(notification => ({ ...notification, read: true }))
+                prevNotifications.map(notification =>
+                    !shown || new Date(notification.createdAt) <= new Date(shown.createdAt)
+                        ? { ...notification, read: true }
+                        : notification
+                )
             );
         } catch (error) {
             console.error('Error marking all notifications as read:', error);
@@ -154,6 +175,11 @@ const NotificationBell = () => {
                                 </div>
                             ))
                         )}
+                        {nextCursor && (
+                            <button onClick={loadMoreNotifications} className="load-more">
+                                Load more
+                            </button>
+                        )}
                     </div>
                 </div>
             )}
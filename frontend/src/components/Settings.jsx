@@ -30,6 +30,8 @@ const Settings = () => {
   const [showFollowingModal, setShowFollowingModal] = useState(false);
   const [searchQuery, setSearchQuery] = useState('');
   const [searchResults, setSearchResults] = useState([]);
+  // Ids among the search results that the user follows; the following list is only one page
+  const [followedResultIds, setFollowedResultIds] = useState(new Set());
 
   // Form states
   const [profileForm, setProfileForm] = useState({
@@ -198,6 +200,8 @@ const Settings = () => {
     try {
       const headers = getAuthHeaders();
       await axios.post(`${API_URL}/users/follow`, { userId, email: authUser.email }, { headers });
+      setFollowedResultIds(prev => new Set(prev).add(userId));
+      setUser(prev => prev && { ...prev, followingCount: (prev.followingCount ?? 0) + 1 });
       await fetchFollowersFollowing();
       setSuccess('Followed user successfully');
       setTimeout(() => setSuccess(null), 3000);
@@ -211,6 +215,12 @@ const Settings = () => {
     try {
       const headers = getAuthHeaders();
       await axios.post(`${API_URL}/users/unfollow`, { userId, email: authUser.email }, { headers });
+      setFollowedResultIds(prev => {
+        const next = new Set(prev);
+        next.delete(userId);
+        return next;
+      });
+      setUser(prev => prev && { ...prev, followingCount: Math.max(0, (prev.followingCount ?? 1) - 1) });
       await fetchFollowersFollowing();
       setSuccess('Unfollowed user successfully');
       setTimeout(() => setSuccess(null), 3000);
@@ -226,6 +236,16 @@ const Settings = () => {
     try {
       const headers = getAuthHeaders();
       const res = await axios.get(`${API_URL}/users/search?username=${searchQuery}`, { headers });
+      let followedIds = [];
+      if (res.data.length > 0) {
+        const ids = res.data.map((result) => result.id).join(',');
+        const followedRes = await axios.get(
+          `${API_URL}/users/following/check?email=${authUser.email}&userIds=${ids}`,
+          { headers }
+        );
+        followedIds = followedRes.data;
+      }
+      setFollowedResultIds(new Set(followedIds));
       setSearchResults(res.data);
     } catch (err) {
       console.error('Error searching users:', err);
@@ -308,13 +328,13 @@ const Settings = () => {
                   className="followers-count"
                   onClick={() => setShowFollowersModal(true)}
                 >
-                  Followers: {followers.length}
+                  Followers: {user?.followerCount ?? followers.length}
                 </button>
                 <button
                   className="following-count"
                   onClick={() => setShowFollowingModal(true)}
                 >
-                  Following: {following.length}
+                  Following: {user?.followingCount ?? following.length}
                 </button>
               </div>
             </div>
@@ -352,7 +372,7 @@ const Settings = () => {
                   {searchResults.map((result) => (
                     <div key={result.id} className="search-result-item">
                       <span>{result.firstName} {result.lastName} ({result.email})</span>
-                      {following.some((f) => f.id === result.id) ? (
+                      {followedResultIds.has(result.id) ? (
                         <button
                           className="unfollow-button"
                           onClick={() => handleUnfollow(result.id)}
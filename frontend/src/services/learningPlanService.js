@@ -1,6 +1,7 @@
 import axios from 'axios';
 
-const API_URL = 'http://localhost:8000/api/learning-plan';
+const API_ORIGIN = 'http://localhost:8000';
+const API_URL = `${API_ORIGIN}/api/learning-plan`;
 
 class LearningPlanError extends Error {
   constructor(message, status) {
@@ -204,4 +205,7 @@ const learningPlanService = {
   }
 };
 
+// Uploaded plan images are stored as /api/media/{hash} paths on the API server, not the page origin
+export const resolveImageUrl = (url) => (url && url.startsWith('/api/') ? `${API_ORIGIN}${url}` : url);
+
 export default learningPlanService;
\ No newline at end of file
@@ -71,6 +71,18 @@ export const getUserNotifications = async () => {
   }
 };
 
+// Keyset-paginated history, newest first. Resolves to { items, nextCursor }; nextCursor is
+// null on the last page.
+export const getNotificationsPage = async (cursor, limit = 20) => {
+  try {
+    const response = await api.get('/user/page', { params: { cursor, limit } });
+    return response.data;
+  } catch (error) {
+    console.error('Error fetching notifications page:', error.response?.data || error.message);
+    throw new Error(error.response?.data?.message || 'Failed to fetch notifications');
+  }
+};
+
 export const getUnreadNotifications = async () => {
   try {
     console.log('Fetching unread notifications');
@@ -105,11 +117,79 @@ export const markAsRead = async (notificationId) => {
   }
 };
 
-export const markAllAsRead = async () => {
+// When upToId is given, only notifications up to and including it are marked, so ones that
+// arrived after the list was displayed stay unread. Resolves to the number marked.
+export const markAllAsRead = async (upToId) => {
   try {
-    await api.put('/user/read-all');
+    const response = await api.put('/user/read-all', null, { params: upToId ? { upTo: upToId } : {} });
+    return response.data.modified;
   } catch (error) {
     console.error('Error marking all notifications as read:', error.response?.data || error.message);
     throw new Error(error.response?.data?.message || 'Failed to mark all notifications as read');
   }
-};
\ No newline at end of file
+};
+
+// Server-sent notification stream. EventSource cannot send the Authorization header, so the
+// stream is read with fetch; on disconnect it reconnects with backoff and sends Last-Event-ID
+// so the server can replay missed events. Returns a function that closes the stream.
+export const subscribeToNotifications = (onEvent) => {
+  let lastEventId = null;
+  let retryDelay = 1000;
+  let controller = null;
+  let closed = false;
+
+  const dispatch = (block) => {
+    let name = 'message';
+    let data = '';
+    block.split('\n').forEach((line) => {
+      if (line.startsWith(':')) return;
+      const separator = line.indexOf(':');
+      const field = separator < 0 ? line : line.slice(0, separator);
+      const value = separator < 0 ? '' : line.slice(separator + 1).replace(/^ /, '');
+      if (field === 'id') lastEventId = value;
+      else if (field === 'event') name = value;
+      else if (field === 'data') data += (data ? '\n' : '') + value;
+    });
+    if (data) {
+      onEvent(name, JSON.parse(data));
+    }
+  };
+
+  const connect = async () => {
+    controller = new AbortController();
+    try {
+      const headers = { ...getAuthHeaders(), Accept: 'text/event-stream' };
+      if (lastEventId) headers['Last-Event-ID'] = lastEventId;
+      const response = await fetch(`${API_URL}/stream`, { headers, signal: controller.signal });
+      if (!response.ok) throw new Error(`Notification stream failed with status ${response.status}`);
+
+      retryDelay = 1000;
+      const reader = response.body.getReader();
+      const decoder = new TextDecoder();
+      let buffer = '';
+      for (;;) {
+        const { done, value } = await reader.read();
+        if (done) break;
+        buffer += decoder.decode(value, { stream: true }).replace(/\r\n?/g, '\n');
+        let boundary;
+        while ((boundary = buffer.indexOf('\n\n')) >= 0) {
+          dispatch(buffer.slice(0, boundary));
+          buffer = buffer.slice(boundary + 2);
+        }
+      }
+    } catch (error) {
+      if (closed) return;
+      console.error('Notification stream error:', error.message);
+    }
+    if (!closed) {
+      setTimeout(connect, retryDelay);
+      retryDelay = Math.min(retryDelay * 2, 30000);
+    }
+  };
+
+  connect();
+  return () => {
+    closed = true;
+    if (controller) controller.abort();
+  };
+};